@@ -2,6 +2,7 @@ package com.edubooking.config;
 
 import com.edubooking.model.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -15,10 +16,11 @@ public class JwtUtil {
     private final String SECRET="Bholenath ki shaadi hai ham naachenege";
     private final long EXPIRATION=1000*60*60*24; // 24 hours
 
-
-    private Key getSigningKey(){
-        return Keys.hmacShaKeyFor(SECRET.getBytes());
-    }
+    // Built once: both are immutable and thread-safe
+    private final Key signingKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build();
 
     public String generateToken(Long userId, String email, Role role){
         return Jwts.builder()
@@ -27,14 +29,12 @@ public class JwtUtil {
                 .claim("role",role.name())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis()+EXPIRATION))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Claims extractAllClaims(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -42,4 +42,8 @@ public class JwtUtil {
     public String extractEmail(String token) {
         return extractAllClaims(token).getSubject();
     }
+
+    public long getExpirationMillis() {
+        return EXPIRATION;
+    }
 }
@@ -0,0 +1,46 @@
+package com.edubooking.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback turbo filter that keeps roughly 1 in {@code sampleEvery} events of the
+ * loggers under {@code loggerPrefix} at or below {@code maxLevel}. WARN and ERROR
+ * pass untouched by default. Configured in logback-spring.xml.
+ *
+ * Runs before the event is built, so a dropped event costs one random number.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    private String loggerPrefix = "";
+    private int sampleEvery = 1;
+    private Level maxLevel = Level.INFO;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXxxEnabled() probes arrive without a format: leave them to the level check
+        if (format == null || level == null) return FilterReply.NEUTRAL;
+        if (sampleEvery <= 1 || level.toInt() > maxLevel.toInt()) return FilterReply.NEUTRAL;
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) return FilterReply.NEUTRAL;
+        if (!logger.getName().startsWith(loggerPrefix)) return FilterReply.NEUTRAL;
+
+        return ThreadLocalRandom.current().nextInt(sampleEvery) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.INFO);
+    }
+}
@@ -0,0 +1,42 @@
+package com.edubooking.config;
+
+import com.edubooking.model.Resource;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resource ids used to come from AUTO_INCREMENT; they now come from the pooled
+ * resource_seq table, which Hibernate creates starting at 1.
+ *
+ * The pooled optimizer hands out the block just below the value it reads, so the
+ * stored value must stay at least max(id) + allocationSize above any existing row.
+ * Runs once the schema is in place and before the web server takes requests;
+ * GREATEST keeps it monotonic when several nodes start together.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class ResourceIdSequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(ResourceIdSequenceInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ResourceIdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignWithExistingIds() {
+        int updated = jdbcTemplate.update("""
+                UPDATE resource_seq
+                SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) FROM resources) + ? + 1)
+                """, Resource.ID_ALLOCATION_SIZE);
+
+        Long nextVal = jdbcTemplate.queryForObject("SELECT next_val FROM resource_seq", Long.class);
+        log.info("resource.sequence.aligned rows={} nextVal={}", updated, nextVal);
+    }
+}
@@ -1,6 +1,9 @@
 package com.edubooking.config;
 
 import com.edubooking.middleware.JwtFilter;
+import com.edubooking.middleware.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -16,6 +19,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
@@ -23,8 +27,23 @@ public class SecurityConfig {
 
     private final JwtFilter jwtFilter;
 
-    public SecurityConfig(JwtFilter jwtFilter) {
+    private final long rateLimitMaxKeys;
+    private final int loginPerMinute;
+    private final int registerPerHour;
+    private final int bookingCreatePerMinute;
+
+    public SecurityConfig(
+            JwtFilter jwtFilter,
+            @Value("${edubooking.rate-limit.max-keys:100000}") long rateLimitMaxKeys,
+            @Value("${edubooking.rate-limit.login-per-minute:10}") int loginPerMinute,
+            @Value("${edubooking.rate-limit.register-per-hour:20}") int registerPerHour,
+            @Value("${edubooking.rate-limit.booking-create-per-minute:30}") int bookingCreatePerMinute
+    ) {
         this.jwtFilter = jwtFilter;
+        this.rateLimitMaxKeys = rateLimitMaxKeys;
+        this.loginPerMinute = loginPerMinute;
+        this.registerPerHour = registerPerHour;
+        this.bookingCreatePerMinute = bookingCreatePerMinute;
     }
 
     @Bean
@@ -34,24 +53,40 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
 
+                        // streamed responses finish on an ASYNC dispatch; the original request was already authorised
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // -------- PUBLIC --------
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/resources/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/bookings/availability").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/bookings/availability/stream").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/bookings/availability/batch").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/bookings/free-slots").permitAll()
+                        // feed URLs are opened by calendar apps; user feeds check the token in the URL
+                        .requestMatchers(HttpMethod.GET, "/calendar/users/*", "/calendar/resources/*").permitAll()
 
                         // -------- USER ONLY --------
                         .requestMatchers(HttpMethod.POST, "/bookings/create").hasRole("STUDENT")
+                        .requestMatchers(HttpMethod.POST, "/bookings/series").hasAnyRole("STUDENT", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/bookings/my").hasRole("STUDENT")
                         .requestMatchers(HttpMethod.PUT, "/bookings/*/cancel").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/calendar/my-feed").authenticated()
 
                         // -------- ADMIN ONLY --------
                         .requestMatchers(HttpMethod.POST, "/resources/create").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/resources/import").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/resources/*").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/resources/*").hasRole("ADMIN")
 
+                        .requestMatchers(HttpMethod.PUT, "/bookings/bulk/*").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/bookings/*/approve").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/bookings/*/reject").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/bookings").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.PUT, "/users/*/role").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.DELETE, "/users/*").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        .requestMatchers("/analytics/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
 
@@ -61,10 +96,23 @@ public class SecurityConfig {
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
         http.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+        // after JwtFilter so authenticated calls are limited per user, anonymous ones per IP
+        http.addFilterAfter(rateLimitFilter(), JwtFilter.class);
 
         return http.build();
     }
 
+    // Deliberately not a @Bean: Boot would register any Filter bean a second time, outside security
+    private RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter(rateLimitMaxKeys)
+                // each attempt is a BCrypt check; also blunts credential stuffing
+                .limit(HttpMethod.POST, "/auth/login", loginPerMinute, Duration.ofMinutes(1))
+                .limit(HttpMethod.POST, "/auth/register", registerPerHour, Duration.ofHours(1))
+                // overlap queries and lookups per call
+                .limit(HttpMethod.POST, "/bookings/create", bookingCreatePerMinute, Duration.ofMinutes(1))
+                .limit(HttpMethod.POST, "/bookings/series", bookingCreatePerMinute, Duration.ofMinutes(1));
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration config = new CorsConfiguration();
@@ -76,7 +124,7 @@ public class SecurityConfig {
 
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
-        config.setExposedHeaders(List.of("Authorization"));
+        config.setExposedHeaders(List.of("Authorization", "Retry-After"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
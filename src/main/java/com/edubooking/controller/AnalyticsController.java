@@ -0,0 +1,41 @@
+package com.edubooking.controller;
+
+import com.edubooking.dto.UtilisationResponse;
+import com.edubooking.service.UtilisationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/analytics")
+@CrossOrigin
+public class AnalyticsController {
+
+    private final UtilisationService utilisationService;
+
+    public AnalyticsController(UtilisationService utilisationService) {
+        this.utilisationService = utilisationService;
+    }
+
+    // ---------------------------------------------------------------
+    // Utilisation of one resource (daily / weekly / hour-of-day), from = to inclusive dates
+    // ---------------------------------------------------------------
+    @GetMapping("/resources/{id}/utilisation")
+    public ResponseEntity<UtilisationResponse> utilisation(
+            @PathVariable Long id,
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to
+    ) {
+        return ResponseEntity.ok(utilisationService.getUtilisation(id, from, to));
+    }
+
+    // ---------------------------------------------------------------
+    // Recompute all rollups from the approved bookings (backfill)
+    // ---------------------------------------------------------------
+    @PostMapping("/utilisation/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuild() {
+        return ResponseEntity.ok(Map.of("bookingsReplayed", utilisationService.rebuild()));
+    }
+}
@@ -4,6 +4,8 @@ import com.edubooking.dto.AuthResponse;
 import com.edubooking.dto.LoginRequest;
 import com.edubooking.dto.RegisterRequest;
 import com.edubooking.service.AuthService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,6 +14,8 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final AuthService authService;
 
 
@@ -21,7 +25,7 @@ public class AuthController {
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request){
-        System.out.println("=== AuthController: REGISTER HIT ===");
+        log.debug("auth.register");
 
         return ResponseEntity.ok(authService.register(request));
     }
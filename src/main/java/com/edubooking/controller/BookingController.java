@@ -2,18 +2,27 @@ package com.edubooking.controller;
 
 import com.edubooking.dto.BookingRequest;
 import com.edubooking.dto.BookingResponse;
+import com.edubooking.dto.BookingSeriesRequest;
+import com.edubooking.dto.BulkDecisionRequest;
+import com.edubooking.dto.BulkDecisionResponse;
 import com.edubooking.dto.AvailabilityResponse;
+import com.edubooking.dto.BatchAvailabilityRequest;
+import com.edubooking.dto.BatchAvailabilityResponse;
+import com.edubooking.dto.TimeWindow;
+import com.edubooking.dto.common.CursorPage;
 import com.edubooking.model.Booking;
 import com.edubooking.model.BookingStatus;
+import com.edubooking.service.AvailabilityHub;
 import com.edubooking.service.BookingService;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/bookings")
@@ -21,9 +30,11 @@ import java.util.stream.Collectors;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final AvailabilityHub availabilityHub;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, AvailabilityHub availabilityHub) {
         this.bookingService = bookingService;
+        this.availabilityHub = availabilityHub;
     }
 
 
@@ -43,33 +54,51 @@ public class BookingController {
 
 
     // ---------------------------------------------------------------
-    // 2. GET MY BOOKINGS (User)
+    // 1b. CREATE RECURRING SERIES (User)
     // ---------------------------------------------------------------
-    @GetMapping("/my")
-    public ResponseEntity<List<BookingResponse>> myBookings(Authentication auth) {
+    @PostMapping("/series")
+    public ResponseEntity<List<BookingResponse>> createSeries(
+            @RequestBody BookingSeriesRequest request,
+            Authentication auth
+    ) {
         Long userId = Long.parseLong(auth.getName());
 
-        List<BookingResponse> list = bookingService.getMyBookings(userId)
+        List<BookingResponse> created = bookingService.createSeries(userId, request)
                 .stream()
                 .map(this::toResponse)
-                .collect(Collectors.toList());
+                .toList();
+        return ResponseEntity.ok(created);
+    }
+
 
-        return ResponseEntity.ok(list);
+    // ---------------------------------------------------------------
+    // 2. GET MY BOOKINGS (User)
+    // ---------------------------------------------------------------
+    @GetMapping("/my")
+    public ResponseEntity<List<BookingResponse>> myBookings(Authentication auth) {
+        Long userId = Long.parseLong(auth.getName());
+
+        return ResponseEntity.ok(bookingService.getMyBookings(userId));
     }
 
 
     // ---------------------------------------------------------------
-    // 3. GET ALL BOOKINGS (Admin Only)
+    // 3. GET ALL BOOKINGS (Admin Only) - filterable, keyset paginated
     // ---------------------------------------------------------------
     @GetMapping
-    public ResponseEntity<List<BookingResponse>> getAllBookings() {
-
-        List<BookingResponse> list = bookingService.getAllBookings()
-                .stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    public ResponseEntity<CursorPage<BookingResponse>> getAllBookings(
+            @RequestParam(value = "status", required = false) BookingStatus status,
+            @RequestParam(value = "resourceId", required = false) Long resourceId,
+            @RequestParam(value = "userId", required = false) Long userId,
+            @RequestParam(value = "from", required = false) LocalDateTime from,
+            @RequestParam(value = "to", required = false) LocalDateTime to,
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
 
-        return ResponseEntity.ok(list);
+        return ResponseEntity.ok(
+                bookingService.getBookings(status, resourceId, userId, from, to, cursor, limit)
+        );
     }
 
 
@@ -95,6 +124,20 @@ public class BookingController {
     }
 
 
+    // ---------------------------------------------------------------
+    // 5b. BULK APPROVE / REJECT (Admin)
+    // ---------------------------------------------------------------
+    @PutMapping("/bulk/approve")
+    public ResponseEntity<BulkDecisionResponse> approveBulk(@RequestBody BulkDecisionRequest request) {
+        return ResponseEntity.ok(bookingService.approveBookings(request.getIds()));
+    }
+
+    @PutMapping("/bulk/reject")
+    public ResponseEntity<BulkDecisionResponse> rejectBulk(@RequestBody BulkDecisionRequest request) {
+        return ResponseEntity.ok(bookingService.rejectBookings(request.getIds()));
+    }
+
+
     // ---------------------------------------------------------------
     // 6. CANCEL BOOKING (User or Admin)
     // ---------------------------------------------------------------
@@ -140,6 +183,46 @@ public class BookingController {
     }
 
 
+    // ---------------------------------------------------------------
+    // 7b. AVAILABILITY STREAM (Public, Server-Sent Events)
+    // Pushes "availability" events (lists of AvailabilityChange) for the given resources
+    // instead of polling; "resync" means changes were dropped and availability should be re-read.
+    // ---------------------------------------------------------------
+    @GetMapping(value = "/availability/stream", produces = "text/event-stream")
+    public SseEmitter availabilityStream(@RequestParam List<Long> resourceIds) {
+        return availabilityHub.subscribe(resourceIds);
+    }
+
+
+    // ---------------------------------------------------------------
+    // 8. BATCH AVAILABILITY API (Public)
+    // ---------------------------------------------------------------
+    @PostMapping("/availability/batch")
+    public ResponseEntity<BatchAvailabilityResponse> checkAvailabilityBatch(
+            @RequestBody BatchAvailabilityRequest request
+    ) {
+        return ResponseEntity.ok(
+                bookingService.checkAvailability(request.getResourceIds(), request.getWindows())
+        );
+    }
+
+
+    // ---------------------------------------------------------------
+    // 9. FREE SLOTS API (Public)
+    // ---------------------------------------------------------------
+    @GetMapping("/free-slots")
+    public ResponseEntity<List<TimeWindow>> freeSlots(
+            @RequestParam Long resourceId,
+            @RequestParam LocalDateTime from,
+            @RequestParam LocalDateTime to,
+            @RequestParam(defaultValue = "30") int minMinutes
+    ) {
+        return ResponseEntity.ok(
+                bookingService.findFreeSlots(resourceId, from, to, Duration.ofMinutes(Math.max(minMinutes, 1)))
+        );
+    }
+
+
     // ---------------------------------------------------------------
     // Helper mapper
     // ---------------------------------------------------------------
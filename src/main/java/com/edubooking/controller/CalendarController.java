@@ -0,0 +1,130 @@
+package com.edubooking.controller;
+
+import com.edubooking.repository.projection.FeedVersion;
+import com.edubooking.service.CalendarFeedService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Subscribable .ics feeds.
+ *
+ * Calendar apps cannot send a JWT, so a user's feed is authorised by the token in its URL
+ * (GET /calendar/my-feed hands it out). Responses carry an ETag built from the feed version
+ * (COUNT and MAX(updatedAt) of the bookings and of their resources) so an unchanged feed costs
+ * one cheap query and a 304. X-Sync-Token can be passed back as ?since= to get only what changed.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/calendar")
+public class CalendarController {
+
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
+    private final CalendarFeedService calendarFeedService;
+
+    public CalendarController(CalendarFeedService calendarFeedService) {
+        this.calendarFeedService = calendarFeedService;
+    }
+
+    @GetMapping("/my-feed")
+    public ResponseEntity<Map<String, String>> myFeed(Authentication auth) {
+        Long userId = Long.parseLong(auth.getName());
+
+        String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/calendar/users/{userId}.ics")
+                .queryParam("token", calendarFeedService.feedToken(userId))
+                .buildAndExpand(userId)
+                .toUriString();
+        return ResponseEntity.ok(Map.of("url", url));
+    }
+
+    @GetMapping("/users/{userId}.ics")
+    public ResponseEntity<StreamingResponseBody> userFeed(
+            @PathVariable Long userId,
+            @RequestParam(value = "token", required = false) String token,
+            @RequestParam(value = "since", required = false) String since,
+            WebRequest webRequest
+    ) {
+        if (!calendarFeedService.isValidFeedToken(userId, token)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Invalid feed token");
+        }
+        LocalDateTime changedSince = parseSince(since);
+
+        FeedVersion version = calendarFeedService.getUserFeedVersion(userId);
+        String etag = etag("u" + userId, version, since);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 already set, no cursor opened
+        }
+
+        return feed(version, out -> calendarFeedService.writeUserFeed(userId, changedSince, out));
+    }
+
+    @GetMapping("/resources/{resourceId}.ics")
+    public ResponseEntity<StreamingResponseBody> resourceFeed(
+            @PathVariable Long resourceId,
+            @RequestParam(value = "since", required = false) String since,
+            WebRequest webRequest
+    ) {
+        LocalDateTime changedSince = parseSince(since);
+
+        FeedVersion version = calendarFeedService.getResourceFeedVersion(resourceId);
+        String etag = etag("r" + resourceId, version, since);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        return feed(version, out -> calendarFeedService.writeResourceFeed(resourceId, changedSince, out));
+    }
+
+
+    // ------------------------------------------------------------
+    // Helpers
+    // ------------------------------------------------------------
+    private static ResponseEntity<StreamingResponseBody> feed(FeedVersion version, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .cacheControl(CacheControl.noCache())
+                .header("X-Sync-Token", String.valueOf(epochMillis(version.latest())))
+                .body(body);
+    }
+
+    /**
+     * The full feed also depends on today's date (its history window slides), so the date is part of the tag.
+     */
+    private static String etag(String feed, FeedVersion version, String since) {
+        return "\"" + feed
+                + "-" + version.count()
+                + "-" + epochMillis(version.lastUpdated())
+                + "-" + epochMillis(version.resourcesUpdated())
+                + "-" + LocalDate.now()
+                + (since == null ? "" : "-s" + since)
+                + "\"";
+    }
+
+    private static LocalDateTime parseSince(String since) {
+        if (since == null) return null;
+        try {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(since)), ZoneId.systemDefault());
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since must be a sync token");
+        }
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
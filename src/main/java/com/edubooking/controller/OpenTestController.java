@@ -2,6 +2,8 @@ package com.edubooking.controller;
 
 import com.edubooking.service.ImageUploadService;
 import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,6 +17,8 @@ import java.util.Map;
 @RequestMapping("/open")
 public class OpenTestController {
 
+    private static final Logger log = LoggerFactory.getLogger(OpenTestController.class);
+
     private final ImageUploadService imageUploadService;
 
     public OpenTestController(ImageUploadService imageUploadService) {
@@ -26,12 +30,11 @@ public class OpenTestController {
             @RequestParam("file") MultipartFile file,
             HttpServletRequest request) throws Exception {
 
-        System.out.println("=== Request Content-Type: " + request.getContentType());
-        System.out.println("=== File is NULL? " + (file == null));
-        if (file != null) {
-            System.out.println("=== File Empty? " + file.isEmpty());
-            System.out.println("=== File Name: " + file.getOriginalFilename());
-        }
+        log.debug("upload.test contentType={} fileNull={} fileEmpty={} fileName={}",
+                request.getContentType(),
+                file == null,
+                file != null && file.isEmpty(),
+                file != null ? file.getOriginalFilename() : null);
 
         if (file == null || file.isEmpty()) {
             return "❌ File NOT RECEIVED";
@@ -4,11 +4,17 @@ import com.edubooking.dto.common.PaginatedResponse;
 import com.edubooking.dto.resource.CreateResourceRequest;
 import com.edubooking.dto.resource.ResourceResponse;
 import com.edubooking.dto.resource.UpdateResourceRequest;
+import com.edubooking.service.ResourceImportService;
 import com.edubooking.service.ResourceService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.ZoneId;
 import java.util.List;
 
 @RestController
@@ -17,9 +23,12 @@ import java.util.List;
 public class ResourceController {
 
     private final ResourceService resourceService;
+    private final ResourceImportService resourceImportService;
 
-    public ResourceController(ResourceService resourceService) {
+    public ResourceController(ResourceService resourceService,
+                              ResourceImportService resourceImportService) {
         this.resourceService = resourceService;
+        this.resourceImportService = resourceImportService;
     }
     @PostMapping(value = "/create", consumes = {"multipart/form-data"})
     public ResponseEntity<ResourceResponse> createResource(
@@ -30,6 +39,21 @@ public class ResourceController {
         return ResponseEntity.ok(resourceService.createResource(request, image));
     }
 
+    /**
+     * Bulk import: "rows" is NDJSON (one create request per line plus an "image" file name),
+     * "images" a zip with those files. Streams back one NDJSON result line per row.
+     */
+    @PostMapping(value = "/import", consumes = {"multipart/form-data"}, produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importResources(
+            @RequestPart("rows") MultipartFile rows,
+            @RequestPart(value = "images", required = false) MultipartFile images
+    ) {
+        StreamingResponseBody body = out -> resourceImportService.importResources(rows, images, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @PutMapping(value = "/{id}", consumes = {"multipart/form-data"})
     public ResponseEntity<ResourceResponse> updateResource(
             @PathVariable Long id,
@@ -39,9 +63,19 @@ public class ResourceController {
 
         return ResponseEntity.ok(resourceService.updateResource(id, request, image));
     }
+    // Conditional GET: answered from the cached response's updatedAt, 304 skips the body
     @GetMapping("/{id}")
-    public ResponseEntity<ResourceResponse> getResourceById(@PathVariable Long id){
-        return ResponseEntity.ok(resourceService.getResourceById(id));
+    public ResponseEntity<ResourceResponse> getResourceById(@PathVariable Long id, WebRequest webRequest){
+        ResourceResponse resource = resourceService.getResourceById(id);
+
+        long lastModified = resource.getUpdatedAt() == null ? -1
+                : resource.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        String etag = "\"r" + id + "-" + lastModified + "\"";
+
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null; // 304 already set
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(resource);
     }
 
     @GetMapping
@@ -54,12 +88,21 @@ public class ResourceController {
             @RequestParam(value = "minCapacity", required = false) Integer minCapacity,
             @RequestParam(value = "maxCapacity", required = false) Integer maxCapacity,
             @RequestParam(value = "location", required = false) String location,
-            @RequestParam(value = "sort", required = false) String sort
+            @RequestParam(value = "sort", required = false) String sort,
+            // "slice": skip the total count, report hasNext only (infinite scroll)
+            @RequestParam(value = "mode", required = false) String mode,
+            WebRequest webRequest
     ) {
+        // Any write on any node changes the (DB-held) catalog version, so an unchanged version means an unchanged page
+        String etag = "\"c" + resourceService.getCatalogVersion() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 already set, no query run
+        }
+
         PaginatedResponse<ResourceResponse> response = resourceService.getResources(
-                page, size, search, type, status, minCapacity, maxCapacity, location, sort
+                page, size, search, type, status, minCapacity, maxCapacity, location, sort, mode
         );
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
     }
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteResource(@PathVariable Long id) {
@@ -0,0 +1,41 @@
+package com.edubooking.controller;
+
+import com.edubooking.dto.AuthResponse;
+import com.edubooking.model.Role;
+import com.edubooking.model.User;
+import com.edubooking.service.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/users")
+@CrossOrigin
+public class UserController {
+
+    private final UserService userService;
+
+    public UserController(UserService userService) {
+        this.userService = userService;
+    }
+
+    // ---------------------------------------------------------------
+    // CHANGE ROLE (Admin) — the user's current tokens stop working
+    // ---------------------------------------------------------------
+    @PutMapping("/{id}/role")
+    public ResponseEntity<AuthResponse> changeRole(
+            @PathVariable Long id,
+            @RequestParam("role") Role role
+    ) {
+        User user = userService.changeRole(id, role);
+        return ResponseEntity.ok(new AuthResponse(null, user.getId(), user.getName(), user.getEmail(), user.getRole()));
+    }
+
+    // ---------------------------------------------------------------
+    // DELETE USER (Admin)
+    // ---------------------------------------------------------------
+    @DeleteMapping("/{id}")
+    public ResponseEntity<String> deleteUser(@PathVariable Long id) {
+        userService.deleteUser(id);
+        return ResponseEntity.ok("User deleted successfully");
+    }
+}
@@ -0,0 +1,20 @@
+package com.edubooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One occupancy delta pushed on /bookings/availability/stream:
+ * [start, end) of the resource became booked (approved) or free again (rejected / cancelled).
+ */
+@Data
+@AllArgsConstructor
+public class AvailabilityChange {
+    private Long resourceId;
+    private Long bookingId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private boolean booked;
+}
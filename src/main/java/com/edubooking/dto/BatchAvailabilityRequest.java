@@ -0,0 +1,11 @@
+package com.edubooking.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchAvailabilityRequest {
+    private List<Long> resourceIds;
+    private List<TimeWindow> windows;
+}
@@ -0,0 +1,19 @@
+package com.edubooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * available[i][j] -> resourceIds[i] is free for windows[j].
+ * Unknown resources are listed separately and their rows are all false.
+ */
+@Data
+@AllArgsConstructor
+public class BatchAvailabilityResponse {
+    private List<Long> resourceIds;
+    private List<TimeWindow> windows;
+    private boolean[][] available;
+    private List<Long> unknownResourceIds;
+}
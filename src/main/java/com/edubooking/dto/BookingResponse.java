@@ -1,11 +1,15 @@
 package com.edubooking.dto;
 
 import com.edubooking.model.BookingStatus;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // constructor order is used by the projection queries in BookingRepository
 public class BookingResponse {
     private Long id;
     private Long userId;
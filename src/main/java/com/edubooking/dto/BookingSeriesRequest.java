@@ -0,0 +1,29 @@
+package com.edubooking.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A recurring booking: the first occurrence plus a recurrence rule.
+ * Give either occurrences or until (inclusive date); if both, whichever ends first wins.
+ */
+@Data
+public class BookingSeriesRequest {
+
+    public enum Frequency {
+        DAILY,
+        WEEKLY
+    }
+
+    private long resourceId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String purpose;
+
+    private Frequency frequency = Frequency.WEEKLY;
+    private int interval = 1;          // every N days / weeks
+    private Integer occurrences;
+    private LocalDate until;
+}
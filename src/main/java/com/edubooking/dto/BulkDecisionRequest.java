@@ -0,0 +1,10 @@
+package com.edubooking.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkDecisionRequest {
+    private List<Long> ids;
+}
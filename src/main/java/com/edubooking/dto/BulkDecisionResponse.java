@@ -0,0 +1,20 @@
+package com.edubooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * updated: ids whose status changed. skipped: id -> reason it was left alone.
+ * autoRejected: pending requests rejected because they overlap a booking approved in
+ * this call (requested ids that lost to an earlier candidate end up here, not in skipped).
+ */
+@Data
+@AllArgsConstructor
+public class BulkDecisionResponse {
+    private List<Long> updated;
+    private Map<Long, String> skipped;
+    private List<Long> autoRejected;
+}
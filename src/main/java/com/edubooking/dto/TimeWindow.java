@@ -0,0 +1,15 @@
+package com.edubooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeWindow {
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -0,0 +1,31 @@
+package com.edubooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Booked (APPROVED) time of one resource over a date range, read from the hourly rollups.
+ */
+@Data
+@AllArgsConstructor
+public class UtilisationResponse {
+
+    private Long resourceId;
+    private LocalDate from;
+    private LocalDate to;              // inclusive
+    private long totalMinutes;
+
+    private List<DayTotal> daily;      // days with bookings only
+    private List<WeekTotal> weekly;    // ISO weeks, keyed by their Monday
+    private long[] minutesByHourOfDay; // index 0..23, summed over the range
+    private Integer peakHour;          // hour of day with the most booked minutes, null if none
+
+    public record DayTotal(LocalDate date, long minutes) {
+    }
+
+    public record WeekTotal(LocalDate weekStart, long minutes) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.edubooking.dto.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Keyset page: pass nextCursor back as ?cursor= to get the following page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private Long nextCursor;
+    private boolean hasNext;
+}
@@ -9,6 +9,7 @@ public class PaginatedResponse<T> {
     private long totalElements;
     private int totalPages;
     private boolean last;
+    private boolean hasNext;
 
     public PaginatedResponse() {}
 
@@ -19,6 +20,14 @@ public class PaginatedResponse<T> {
         this.totalElements = totalElements;
         this.totalPages = totalPages;
         this.last = last;
+        this.hasNext = !last;
+    }
+
+    /**
+     * Slice mode: no COUNT(*) was run, so totalElements and totalPages are -1.
+     */
+    public static <T> PaginatedResponse<T> slice(List<T> content, int page, int size, boolean hasNext) {
+        return new PaginatedResponse<>(content, page, size, -1, -1, !hasNext);
     }
 
     // getters & setters
@@ -34,5 +43,7 @@ public class PaginatedResponse<T> {
     public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
     public boolean isLast() { return last; }
     public void setLast(boolean last) { this.last = last; }
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
 }
 
@@ -0,0 +1,27 @@
+package com.edubooking.dto.resource;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Progress line streamed back for each imported row.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResourceImportResult {
+
+    private int line;
+    private String status;   // CREATED | FAILED
+    private Long id;
+    private String error;
+
+    public static ResourceImportResult created(int line, long id) {
+        return new ResourceImportResult(line, "CREATED", id, null);
+    }
+
+    public static ResourceImportResult failed(int line, String error) {
+        return new ResourceImportResult(line, "FAILED", null, error);
+    }
+}
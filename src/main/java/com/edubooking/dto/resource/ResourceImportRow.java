@@ -0,0 +1,14 @@
+package com.edubooking.dto.resource;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One line of a bulk import file (NDJSON): the usual create fields plus the
+ * file name of the resource's image inside the uploaded archive.
+ */
+@Getter
+@Setter
+public class ResourceImportRow extends CreateResourceRequest {
+    private String image;
+}
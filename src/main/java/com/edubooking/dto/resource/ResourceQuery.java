@@ -0,0 +1,97 @@
+package com.edubooking.dto.resource;
+
+import com.edubooking.model.ResourceStatus;
+import com.edubooking.model.ResourceType;
+import org.springframework.data.domain.Sort;
+
+import java.util.Locale;
+
+/**
+ * Normalised GET /resources parameters.
+ *
+ * Requests that differ only in case, whitespace or defaults map to the same value,
+ * so this doubles as the catalog cache key.
+ */
+public record ResourceQuery(
+        int page,
+        int size,
+        String search,
+        ResourceType type,
+        ResourceStatus status,
+        Integer minCapacity,
+        Integer maxCapacity,
+        String location,
+        ResourceSortKey sort,
+        Sort.Direction direction,
+        boolean slice
+) {
+
+    public static ResourceQuery of(Integer page,
+                                   Integer size,
+                                   String search,
+                                   String type,
+                                   String status,
+                                   Integer minCapacity,
+                                   Integer maxCapacity,
+                                   String location,
+                                   String sort,
+                                   String mode) {
+        return new ResourceQuery(
+                (page == null || page < 0) ? 0 : page,
+                (size == null || size <= 0) ? 10 : size,
+                normaliseText(search),
+                parseEnum(ResourceType.class, type),
+                parseEnum(ResourceStatus.class, status),
+                minCapacity,
+                maxCapacity,
+                normaliseText(location),
+                parseSortKey(sort),
+                parseDirection(sort),
+                mode != null && "slice".equalsIgnoreCase(mode.trim())
+        );
+    }
+
+    /**
+     * Only the parts that decide which rows match; the key for cached counts.
+     */
+    public ResourceQuery filterKey() {
+        return new ResourceQuery(0, 0, search, type, status, minCapacity, maxCapacity, location, null, null, false);
+    }
+
+    public boolean hasSearch() {
+        return search != null;
+    }
+
+    public boolean hasSort() {
+        return sort != null;
+    }
+
+    // Lower-cased, trimmed, inner whitespace collapsed; blank -> null
+    private static String normaliseText(String text) {
+        if (text == null || text.isBlank()) return null;
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // Unknown values are ignored (no filter), as before
+    private static <E extends Enum<E>> E parseEnum(Class<E> enumType, String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return Enum.valueOf(enumType, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // "property,dir": property must be a ResourceSortKey, dir defaults to desc
+    private static ResourceSortKey parseSortKey(String sort) {
+        if (sort == null || sort.isBlank()) return null;
+        return ResourceSortKey.fromProperty(sort.split(",")[0].trim());
+    }
+
+    private static Sort.Direction parseDirection(String sort) {
+        if (sort == null || sort.isBlank()) return null;
+        String[] parts = sort.split(",");
+        String dir = (parts.length > 1) ? parts[1].trim().toLowerCase(Locale.ROOT) : "desc";
+        return "asc".equals(dir) ? Sort.Direction.ASC : Sort.Direction.DESC;
+    }
+}
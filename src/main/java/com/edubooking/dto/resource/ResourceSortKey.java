@@ -0,0 +1,46 @@
+package com.edubooking.dto.resource;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The sort orders GET /resources accepts.
+ *
+ * Each one is backed by a (column, id) index on the resources table (see Resource),
+ * and id is always appended as a tie-break, so the order is total and a row never
+ * moves between pages of the same unchanged listing. Paging is still page/size.
+ */
+public enum ResourceSortKey {
+
+    CREATED_AT("createdAt"),   // idx_resource_created_at_id
+    NAME("name"),              // idx_resource_name_id
+    CAPACITY("capacity"),      // idx_resource_capacity_id
+    ID("id");                  // primary key
+
+    private final String property;
+
+    ResourceSortKey(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public Sort toSort(Sort.Direction direction) {
+        Sort sort = Sort.by(direction, property);
+        return this == ID ? sort : sort.and(Sort.by(direction, ID.property));
+    }
+
+    /**
+     * Rejected with 400 before any query is built.
+     */
+    public static ResourceSortKey fromProperty(String property) {
+        for (ResourceSortKey key : values()) {
+            if (key.property.equalsIgnoreCase(property)) return key;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Unsupported sort '" + property + "'. Use one of: createdAt, name, capacity, id");
+    }
+}
@@ -1,13 +1,14 @@
 package com.edubooking.middleware;
 
 import com.edubooking.config.JwtUtil;
-import com.edubooking.model.User;
-import com.edubooking.repository.UserRepository;
+import com.edubooking.service.TokenRevocationList;
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -22,12 +23,15 @@ import java.util.List;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
+    // DEBUG tracing is sampled (see logback-spring.xml), so it can stay on in production
+    private static final Logger log = LoggerFactory.getLogger(JwtFilter.class);
+
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final TokenRevocationList tokenRevocationList;
 
-    public JwtFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+    public JwtFilter(JwtUtil jwtUtil, TokenRevocationList tokenRevocationList) {
         this.jwtUtil = jwtUtil;
-        this.userRepository = userRepository;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     @Override
@@ -45,8 +49,7 @@ public class JwtFilter extends OncePerRequestFilter {
             FilterChain chain
     ) throws ServletException, IOException {
 
-        System.out.println("=== JwtFilter: REQUEST RECEIVED ===");
-        System.out.println("Path = " + request.getRequestURI());
+        log.debug("jwt.request method={} path={}", request.getMethod(), request.getRequestURI());
 
         String authHeader = request.getHeader("Authorization");
 
@@ -58,11 +61,13 @@ public class JwtFilter extends OncePerRequestFilter {
         String token = authHeader.substring(7);
 
         try {
+            // Signature and expiry are verified here; id and role come from the claims (no DB lookup)
             Claims claims = jwtUtil.extractAllClaims(token);
-            String email = claims.getSubject();
+            Number id = claims.get("id", Number.class);
+            String role = claims.get("role", String.class);
 
-            User user = userRepository.findByEmail(email).orElse(null);
-            if (user == null) {
+            if (id == null || role == null
+                    || tokenRevocationList.isRevoked(id.longValue(), claims.getIssuedAt())) {
                 chain.doFilter(request, response);
                 return;
             }
@@ -71,12 +76,12 @@ public class JwtFilter extends OncePerRequestFilter {
 
                 // ⭐ Add correct authority
                 List<GrantedAuthority> authorities =
-                        List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+                        List.of(new SimpleGrantedAuthority("ROLE_" + role));
 
                 // ⭐ Authentication principal = userId
                 UsernamePasswordAuthenticationToken auth =
                         new UsernamePasswordAuthenticationToken(
-                                user.getId().toString(),
+                                String.valueOf(id.longValue()),
                                 null,
                                 authorities
                         );
@@ -84,12 +89,11 @@ public class JwtFilter extends OncePerRequestFilter {
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
 
-                System.out.println("Authenticated USER=" + user.getEmail() +
-                        " Authorities=" + authorities);
+                log.debug("jwt.authenticated userId={} authorities={}", id, authorities);
             }
 
         } catch (Exception ex) {
-            System.out.println("JWT ERROR: " + ex.getMessage());
+            log.debug("jwt.rejected reason={}", ex.getMessage());
         }
 
         chain.doFilter(request, response);
@@ -0,0 +1,165 @@
+package com.edubooking.middleware;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiting per route, keyed by user id (when JwtFilter authenticated the
+ * request) or client IP. Runs after JwtFilter; the first matching rule applies.
+ *
+ * Not a @Component on purpose: Spring Boot would also register it as a plain servlet filter.
+ * SecurityConfig builds it with its rules and adds it to the security chain.
+ *
+ * Each bucket is a single AtomicLong holding the time at which it would be full again
+ * (the GCRA form of a token bucket), so taking a token is one CAS and never blocks.
+ * Buckets live in a size-bounded Caffeine cache per rule and expire once idle long enough
+ * to have refilled completely, so evicting one never grants extra tokens.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final long maxKeysPerRule;
+    private final LongSupplier nanoClock;
+
+    public RateLimitFilter(long maxKeysPerRule) {
+        this(maxKeysPerRule, System::nanoTime);
+    }
+
+    RateLimitFilter(long maxKeysPerRule, LongSupplier nanoClock) {
+        this.maxKeysPerRule = maxKeysPerRule;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Allow bursts of {@code capacity} requests, refilled at {@code capacity} per {@code period}.
+     */
+    public RateLimitFilter limit(HttpMethod method, String pattern, int capacity, Duration period) {
+        if (capacity < 1 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Invalid rate limit for " + pattern);
+        }
+        rules.add(new Rule(AntPathRequestMatcher.antMatcher(method, pattern), pattern, capacity, period, maxKeysPerRule));
+        return this;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+
+        Rule rule = match(request);
+        if (rule == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = clientKey(request);
+        long waitNanos = rule.bucket(key).tryAcquire(nanoClock.getAsLong());
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.debug("ratelimit.rejected rule={} key={} retryAfter={}s", rule.pattern(), key, retryAfter);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\",\"retryAfterSeconds\":" + retryAfter + "}");
+    }
+
+    private Rule match(HttpServletRequest request) {
+        for (Rule rule : rules) {
+            if (rule.matcher().matches(request)) return rule;
+        }
+        return null;
+    }
+
+    /**
+     * getRemoteAddr() is the real client when server.forward-headers-strategy is set behind a proxy.
+     */
+    private static String clientKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "user:" + auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+
+    // ------------------------------------------------------------
+    // Rules and buckets
+    // ------------------------------------------------------------
+    private record Rule(RequestMatcher matcher, String pattern, Cache<String, Bucket> buckets,
+                        long intervalNanos, long burstNanos) {
+
+        Rule(RequestMatcher matcher, String pattern, int capacity, Duration period, long maxKeys) {
+            this(matcher, pattern,
+                    Caffeine.newBuilder()
+                            .maximumSize(maxKeys)
+                            .expireAfterAccess(period)
+                            .build(),
+                    period.toNanos() / capacity,
+                    period.toNanos() / capacity * capacity);
+        }
+
+        Bucket bucket(String key) {
+            return buckets.get(key, k -> new Bucket(intervalNanos, burstNanos));
+        }
+    }
+
+    static final class Bucket {
+
+        private final long intervalNanos; // time to earn one token
+        private final long burstNanos;    // time to refill from empty (capacity * interval)
+
+        // When the bucket will be full again; anything in the past means full
+        private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+        Bucket(long intervalNanos, long burstNanos) {
+            this.intervalNanos = intervalNanos;
+            this.burstNanos = burstNanos;
+        }
+
+        /**
+         * Takes one token. Returns 0 on success, otherwise the nanoseconds until one is available.
+         */
+        long tryAcquire(long now) {
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long wait = next - now - burstNanos;
+                if (wait > 0) return wait;
+                if (fullAt.compareAndSet(current, next)) return 0;
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
@@ -13,7 +14,20 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name="bookings")
+@Table(name="bookings", indexes = {
+        // overlap checks: resource_id = ? AND status = ? AND start_time > ? AND start_time < ? AND end_time > ?
+        @Index(name = "idx_booking_resource_overlap", columnList = "resource_id, status, start_time, end_time"),
+        @Index(name = "idx_booking_user_overlap", columnList = "user_id, status, start_time, end_time"),
+        // admin listing: filter + ORDER BY id DESC keyset
+        @Index(name = "idx_booking_status_id", columnList = "status, id"),
+        @Index(name = "idx_booking_resource_id", columnList = "resource_id, id"),
+        @Index(name = "idx_booking_user_id", columnList = "user_id, id"),
+        // calendar feeds: version (COUNT/MAX) and "changed since" reads
+        @Index(name = "idx_booking_user_updated", columnList = "user_id, updated_at"),
+        @Index(name = "idx_booking_resource_updated", columnList = "resource_id, updated_at"),
+        // interval index sweep: updated_at > ?
+        @Index(name = "idx_booking_updated_at", columnList = "updated_at")
+})
 public class Booking {
 @Id
 @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -38,4 +52,8 @@ private Long id;
     private BookingStatus status;
 
     private String purpose;
+
+    // Also set explicitly by the bulk UPDATEs in BookingRepository, which bypass this annotation
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,28 @@
+package com.edubooking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Single-row counter bumped in the same transaction as every resource write.
+ * Shared by all nodes, so it is what the catalog cache and the GET /resources ETag key on.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "catalog_version")
+public class CatalogVersion {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,7 @@
+package com.edubooking.model;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
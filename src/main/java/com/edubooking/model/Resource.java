@@ -15,10 +15,23 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name="resources")
+@Table(name="resources", indexes = {
+        // GET /resources sort orders (ResourceSortKey), id as tie-break
+        @Index(name = "idx_resource_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_resource_name_id", columnList = "name, id"),
+        @Index(name = "idx_resource_capacity_id", columnList = "capacity, id"),
+        // search index sweep: updated_at > ?
+        @Index(name = "idx_resource_updated_at", columnList = "updated_at")
+})
 public class Resource {
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence (a one-row table on MySQL): ids are handed out in blocks of 50,
+    // so inserts can be JDBC-batched, which IDENTITY prevents. See ResourceIdSequenceInitializer.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "resource_seq")
+    @SequenceGenerator(name = "resource_seq", sequenceName = "resource_seq", allocationSize = Resource.ID_ALLOCATION_SIZE)
     private  long id;
 
     private String name;
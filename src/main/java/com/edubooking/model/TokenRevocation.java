@@ -0,0 +1,36 @@
+package com.edubooking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tokens of this user issued before revokedAt are no longer accepted
+ * (account deleted, role changed, password reset...).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_token_revocation_time", columnList = "revoked_at")
+})
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+
+    private String reason;
+}
@@ -0,0 +1,39 @@
+package com.edubooking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Approved minutes of one resource within one clock hour.
+ * Maintained incrementally by UtilisationService as bookings enter or leave APPROVED.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "resource_utilisation_hourly", uniqueConstraints = {
+        // upsert key, also serves the per-resource range reads
+        @UniqueConstraint(name = "uk_utilisation_bucket", columnNames = {"resource_id", "bucket_start"})
+})
+public class UtilisationRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    // Start of the hour (minutes and seconds are zero)
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "booked_minutes", nullable = false)
+    private int bookedMinutes;
+}
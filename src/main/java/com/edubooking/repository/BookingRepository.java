@@ -1,55 +1,303 @@
 package com.edubooking.repository;
 
+import com.edubooking.dto.BookingResponse;
 import com.edubooking.model.Booking;
-import com.edubooking.model.Resource;
+import com.edubooking.model.BookingStatus;
+import com.edubooking.repository.projection.BookingInterval;
+import com.edubooking.repository.projection.CalendarEvent;
+import com.edubooking.repository.projection.FeedVersion;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking>,
+        BookingRepositoryCustom {
 
     /**
-     * Find already-approved bookings that overlap with a given time slot.
+     * EXISTS (LIMIT 1) on idx_booking_resource_overlap (resource_id, status, start_time, end_time).
+     */
+    boolean existsByResourceIdAndStatusAndStartTimeAfterAndStartTimeBeforeAndEndTimeAfter(
+            Long resourceId, BookingStatus status, LocalDateTime startFloor, LocalDateTime end, LocalDateTime start);
+
+    /**
+     * Is there an already-approved booking overlapping the given time slot?
      *
      * (start1 < end2) AND (end1 > start2)
+     * Nothing is assumed about approved bookings not overlapping each other (legacy rows may).
+     * The scan is bounded below instead: a booking no longer than {@code longest} that starts
+     * at or before {@code start - longest} has ended by {@code start}, so the range is
+     * (start - longest, end) on start_time however much history the resource has.
+     * {@code longest} must bound every approved booking (see BookingDurationLimit).
+     */
+    default boolean existsOverlappingBooking(Long resourceId, LocalDateTime start, LocalDateTime end, Duration longest) {
+        return existsByResourceIdAndStatusAndStartTimeAfterAndStartTimeBeforeAndEndTimeAfter(
+                resourceId, BookingStatus.APPROVED, start.minus(longest), end, start);
+    }
+
+    /**
+     * Longest booking in the given statuses, in seconds (null when there are none). A full
+     * pass; BookingDurationLimit runs it once at startup.
      */
     @Query("""
-        SELECT b FROM Booking b
-        WHERE b.resource = :resource
+        SELECT MAX((b.endTime - b.startTime) by second) FROM Booking b
+        WHERE b.status IN :statuses
+    """)
+    Long findLongestDurationSeconds(@Param("statuses") Collection<BookingStatus> statuses);
+
+
+    /**
+     * Any booking at all (history included) for this user. Served by idx_booking_user_id.
+     */
+    boolean existsByUserId(Long userId);
+
+
+    /**
+     * Does the SAME user already have an approved booking in this slot?
+     * This prevents double-booking by the user. Served by idx_booking_user_overlap.
+     */
+    boolean existsByUserIdAndStatusAndStartTimeBeforeAndEndTimeAfter(
+            Long userId, BookingStatus status, LocalDateTime end, LocalDateTime start);
+
+    default boolean existsOverlappingUserBooking(Long userId, LocalDateTime start, LocalDateTime end) {
+        return existsByUserIdAndStatusAndStartTimeBeforeAndEndTimeAfter(
+                userId, BookingStatus.APPROVED, end, start);
+    }
+
+
+    /**
+     * Approved bookings of a user overlapping [start, end), ordered by start.
+     * One range scan on idx_booking_user_overlap for a whole recurring series.
+     */
+    @Query("""
+        SELECT new com.edubooking.repository.projection.BookingInterval(
+            b.id, b.resource.id, b.startTime, b.endTime)
+        FROM Booking b
+        WHERE b.user.id = :userId
         AND b.status = 'APPROVED'
         AND b.startTime < :end
         AND b.endTime > :start
+        ORDER BY b.startTime
     """)
-    List<Booking> findOverlappingBookings(
-            @Param("resource") Resource resource,
+    List<BookingInterval> findApprovedUserIntervals(
+            @Param("userId") Long userId,
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end
     );
 
 
     /**
-     * Find overlapping bookings for the SAME user
-     * This prevents double-booking by the user.
+     * All approved time ranges, used to warm the in-memory interval index at startup.
      */
     @Query("""
-        SELECT b FROM Booking b
-        WHERE b.user.id = :userId
+        SELECT new com.edubooking.repository.projection.BookingInterval(
+            b.id, b.resource.id, b.startTime, b.endTime)
+        FROM Booking b
+        WHERE b.status = 'APPROVED'
+    """)
+    List<BookingInterval> findAllApprovedIntervals();
+
+    /**
+     * Bookings in one of {@code statuses} whose updatedAt is after {@code since}; the interval
+     * index replays these on every sweep. Backed by idx_booking_updated_at.
+     */
+    @Query("""
+        SELECT new com.edubooking.repository.projection.BookingInterval(
+            b.id, b.resource.id, b.startTime, b.endTime)
+        FROM Booking b
+        WHERE b.updatedAt > :since
+        AND b.status IN :statuses
+    """)
+    List<BookingInterval> findIntervalsChangedSince(
+            @Param("since") LocalDateTime since,
+            @Param("statuses") Collection<BookingStatus> statuses
+    );
+
+
+    /**
+     * Resource of a booking, without loading (and caching) the booking entity itself.
+     */
+    @Query("SELECT b.resource.id FROM Booking b WHERE b.id = :id")
+    Optional<Long> findResourceIdById(@Param("id") Long id);
+
+
+    /**
+     * Resources touched by a set of bookings (scalar query, entities stay out of the persistence context).
+     */
+    @Query("SELECT DISTINCT b.resource.id FROM Booking b WHERE b.id IN :ids")
+    List<Long> findResourceIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+
+    /**
+     * Bookings with user and resource in a single query (bulk admin actions).
+     */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.user JOIN FETCH b.resource WHERE b.id IN :ids")
+    List<Booking> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+
+    /**
+     * Approved bookings of several resources overlapping [start, end), by start time.
+     */
+    @Query("""
+        SELECT new com.edubooking.repository.projection.BookingInterval(
+            b.id, b.resource.id, b.startTime, b.endTime)
+        FROM Booking b
+        WHERE b.resource.id IN :resourceIds
         AND b.status = 'APPROVED'
         AND b.startTime < :end
         AND b.endTime > :start
+        ORDER BY b.startTime
     """)
-    List<Booking> findOverlappingUserBookings(
-            @Param("userId") Long userId,
+    List<BookingInterval> findApprovedIntervals(
+            @Param("resourceIds") Collection<Long> resourceIds,
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end
     );
 
 
     /**
-     * Get all bookings by user
+     * Pending requests of several resources overlapping [start, end), with user and resource
+     * fetched for the notification emails.
      */
-    List<Booking> findByUserId(Long userId);
+    @Query("""
+        SELECT b FROM Booking b JOIN FETCH b.user JOIN FETCH b.resource
+        WHERE b.resource.id IN :resourceIds
+        AND b.status = 'PENDING'
+        AND b.startTime < :end
+        AND b.endTime > :start
+    """)
+    List<Booking> findPendingOverlapping(
+            @Param("resourceIds") Collection<Long> resourceIds,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+
+    /**
+     * Set-based status change. Bypasses the persistence context, so it is cleared afterwards.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.updatedAt = :now WHERE b.id IN :ids")
+    int updateStatus(
+            @Param("ids") Collection<Long> ids,
+            @Param("status") BookingStatus status,
+            @Param("now") LocalDateTime now
+    );
+
+
+    // ------------------------------------------------------------
+    // Calendar feeds: streamed row by row (MySQL needs fetch size Integer.MIN_VALUE for that);
+    // callers must consume the stream inside a transaction and close it.
+    // ------------------------------------------------------------
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("""
+        SELECT new com.edubooking.repository.projection.CalendarEvent(
+            b.id, r.name, r.location, b.startTime, b.endTime, b.purpose, b.status, b.updatedAt)
+        FROM Booking b JOIN b.resource r
+        WHERE b.user.id = :userId
+        AND b.status IN :statuses
+        AND b.endTime > :endsAfter
+        ORDER BY b.startTime
+    """)
+    Stream<CalendarEvent> streamUserEvents(
+            @Param("userId") Long userId,
+            @Param("statuses") Collection<BookingStatus> statuses,
+            @Param("endsAfter") LocalDateTime endsAfter
+    );
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("""
+        SELECT new com.edubooking.repository.projection.CalendarEvent(
+            b.id, r.name, r.location, b.startTime, b.endTime, b.purpose, b.status, b.updatedAt)
+        FROM Booking b JOIN b.resource r
+        WHERE b.user.id = :userId
+        AND (b.updatedAt > :since OR r.updatedAt > :since)
+        ORDER BY b.updatedAt
+    """)
+    Stream<CalendarEvent> streamUserChanges(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("""
+        SELECT new com.edubooking.repository.projection.CalendarEvent(
+            b.id, r.name, r.location, b.startTime, b.endTime, b.purpose, b.status, b.updatedAt)
+        FROM Booking b JOIN b.resource r
+        WHERE r.id = :resourceId
+        AND b.status IN :statuses
+        AND b.endTime > :endsAfter
+        ORDER BY b.startTime
+    """)
+    Stream<CalendarEvent> streamResourceEvents(
+            @Param("resourceId") Long resourceId,
+            @Param("statuses") Collection<BookingStatus> statuses,
+            @Param("endsAfter") LocalDateTime endsAfter
+    );
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("""
+        SELECT new com.edubooking.repository.projection.CalendarEvent(
+            b.id, r.name, r.location, b.startTime, b.endTime, b.purpose, b.status, b.updatedAt)
+        FROM Booking b JOIN b.resource r
+        WHERE r.id = :resourceId
+        AND (b.updatedAt > :since OR r.updatedAt > :since)
+        ORDER BY b.updatedAt
+    """)
+    Stream<CalendarEvent> streamResourceChanges(@Param("resourceId") Long resourceId, @Param("since") LocalDateTime since);
+
+    /**
+     * idx_booking_user_updated plus a primary-key lookup per booking for the resource's updatedAt
+     * (a rename or move changes every event on it): cheap enough to run on every feed poll.
+     */
+    @Query("""
+        SELECT new com.edubooking.repository.projection.FeedVersion(COUNT(b), MAX(b.updatedAt), MAX(r.updatedAt))
+        FROM Booking b JOIN b.resource r
+        WHERE b.user.id = :userId
+    """)
+    FeedVersion findUserFeedVersion(@Param("userId") Long userId);
+
+    /**
+     * idx_booking_resource_updated plus the one resource row (its location is on every event).
+     */
+    @Query("""
+        SELECT new com.edubooking.repository.projection.FeedVersion(COUNT(b), MAX(b.updatedAt), MAX(r.updatedAt))
+        FROM Booking b JOIN b.resource r
+        WHERE r.id = :resourceId
+    """)
+    FeedVersion findResourceFeedVersion(@Param("resourceId") Long resourceId);
+
+
+    /**
+     * Get all bookings by user, projected to exactly the BookingResponse columns.
+     * One SELECT joining resources for the name; no User or Resource entities are loaded.
+     */
+    @Query("""
+        SELECT new com.edubooking.dto.BookingResponse(
+            b.id, b.user.id, r.id, r.name, b.startTime, b.endTime, b.purpose, b.status)
+        FROM Booking b JOIN b.resource r
+        WHERE b.user.id = :userId
+        ORDER BY b.id
+    """)
+    List<BookingResponse> findResponsesByUserId(@Param("userId") Long userId);
 }
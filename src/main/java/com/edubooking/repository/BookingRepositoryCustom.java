@@ -0,0 +1,15 @@
+package com.edubooking.repository;
+
+import com.edubooking.dto.BookingResponse;
+import com.edubooking.model.Booking;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Filtered listing projected straight into BookingResponse (one SELECT, id DESC).
+     */
+    List<BookingResponse> findResponses(Specification<Booking> spec, int limit);
+}
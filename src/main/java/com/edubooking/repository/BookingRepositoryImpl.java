@@ -0,0 +1,54 @@
+package com.edubooking.repository;
+
+import com.edubooking.dto.BookingResponse;
+import com.edubooking.model.Booking;
+import com.edubooking.model.Resource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Picked up by Spring Data as the implementation of BookingRepositoryCustom.
+ */
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingResponse> findResponses(Specification<Booking> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingResponse> query = cb.createQuery(BookingResponse.class);
+
+        Root<Booking> b = query.from(Booking.class);
+        Join<Booking, Resource> r = b.join("resource");
+
+        query.select(cb.construct(BookingResponse.class,
+                b.get("id"),
+                b.get("user").get("id"),
+                r.get("id"),
+                r.get("name"),
+                b.get("startTime"),
+                b.get("endTime"),
+                b.get("purpose"),
+                b.get("status")
+        ));
+
+        Predicate where = spec == null ? null : spec.toPredicate(b, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(cb.desc(b.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,22 @@
+package com.edubooking.repository;
+
+import com.edubooking.model.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Long> {
+
+    /**
+     * Must run inside the writing transaction: the new value becomes visible exactly
+     * when the write does (commit order, not clock order).
+     */
+    @Modifying
+    @Query("UPDATE CatalogVersion v SET v.version = v.version + 1 WHERE v.id = " + CatalogVersion.ID)
+    int bump();
+
+    @Query("SELECT v.version FROM CatalogVersion v WHERE v.id = " + CatalogVersion.ID)
+    Optional<Long> findVersion();
+}
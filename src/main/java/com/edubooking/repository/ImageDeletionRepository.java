@@ -0,0 +1,70 @@
+package com.edubooking.repository;
+
+import com.edubooking.model.ImageDeletion;
+import com.edubooking.model.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ImageDeletionRepository extends JpaRepository<ImageDeletion, Long> {
+
+    /**
+     * Due deletions, locked FOR UPDATE SKIP LOCKED (lock timeout -2)
+     * so several nodes can drain the queue without picking the same rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT d FROM ImageDeletion d
+        WHERE d.status = 'PENDING'
+        AND d.nextAttemptAt <= :now
+        ORDER BY d.nextAttemptAt
+    """)
+    List<ImageDeletion> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+
+    /**
+     * Claim rows for one attempt; they reappear when the lease runs out if the worker dies.
+     * Clears the persistence context, so the rows just read cannot be flushed back over the lease.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE ImageDeletion d
+        SET d.attempts = d.attempts + 1, d.nextAttemptAt = :leaseUntil
+        WHERE d.id IN :ids
+    """)
+    int claim(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+
+    @Modifying
+    @Query("""
+        UPDATE ImageDeletion d
+        SET d.status = 'SENT', d.deletedAt = :now, d.lastError = NULL
+        WHERE d.id IN :ids
+    """)
+    int markDeleted(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+
+    @Modifying
+    @Query("""
+        UPDATE ImageDeletion d
+        SET d.status = :status, d.nextAttemptAt = :nextAttemptAt, d.lastError = :error
+        WHERE d.id = :id
+    """)
+    int markFailedAttempt(
+            @Param("id") Long id,
+            @Param("status") OutboxStatus status,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("error") String error
+    );
+}
@@ -0,0 +1,71 @@
+package com.edubooking.repository;
+
+import com.edubooking.model.OutboxEmail;
+import com.edubooking.model.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    /**
+     * Due emails, locked FOR UPDATE SKIP LOCKED (lock timeout -2)
+     * so several nodes can drain the outbox without picking the same rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT o FROM OutboxEmail o
+        WHERE o.status = 'PENDING'
+        AND o.nextAttemptAt <= :now
+        ORDER BY o.nextAttemptAt
+    """)
+    List<OutboxEmail> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+
+    /**
+     * Claim rows for one attempt: hide them until the lease runs out,
+     * so a crashed sender's rows come back on their own.
+     * Clears the persistence context, so the rows just read cannot be flushed back over the lease.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE OutboxEmail o
+        SET o.attempts = o.attempts + 1, o.nextAttemptAt = :leaseUntil
+        WHERE o.id IN :ids
+    """)
+    int claim(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+
+    @Modifying
+    @Query("""
+        UPDATE OutboxEmail o
+        SET o.status = 'SENT', o.sentAt = :now, o.lastError = NULL
+        WHERE o.id IN :ids
+    """)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+
+    @Modifying
+    @Query("""
+        UPDATE OutboxEmail o
+        SET o.status = :status, o.nextAttemptAt = :nextAttemptAt, o.lastError = :error
+        WHERE o.id = :id
+    """)
+    int markFailedAttempt(
+            @Param("id") Long id,
+            @Param("status") OutboxStatus status,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("error") String error
+    );
+}
@@ -1,9 +1,68 @@
 package com.edubooking.repository;
 
 import com.edubooking.model.Resource;
+import com.edubooking.repository.projection.ResourceSearchDocument;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-public interface ResourceRepository extends JpaRepository<Resource,Long>, JpaSpecificationExecutor<Resource> {
+
+public interface ResourceRepository extends JpaRepository<Resource,Long>, JpaSpecificationExecutor<Resource>,
+        ResourceRepositoryCustom {
+
+    /**
+     * SELECT ... FOR UPDATE on the resource row.
+     * The row doubles as the per-resource booking lock across nodes; held until commit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Resource r WHERE r.id = :id")
+    Optional<Resource> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Multi-resource variant; rows are locked in id order so concurrent callers cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Resource r WHERE r.id IN :ids ORDER BY r.id")
+    List<Resource> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Which of the given ids exist (one IN query, no entity loading).
+     */
+    @Query("SELECT r.id FROM Resource r WHERE r.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Text columns of every resource, used to build the in-memory search index.
+     */
+    @Query("""
+        SELECT new com.edubooking.repository.projection.ResourceSearchDocument(
+            r.id, r.name, r.description, r.features)
+        FROM Resource r
+    """)
+    List<ResourceSearchDocument> findAllSearchDocuments();
+
+    /**
+     * Search text of resources created or changed since {@code since} (ResourceSearchIndex sweeps).
+     */
+    @Query("""
+        SELECT new com.edubooking.repository.projection.ResourceSearchDocument(
+            r.id, r.name, r.description, r.features)
+        FROM Resource r
+        WHERE r.updatedAt > :since
+    """)
+    List<ResourceSearchDocument> findSearchDocumentsChangedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Every resource id; index-only. Tells the search index which resources were deleted.
+     */
+    @Query("SELECT r.id FROM Resource r")
+    List<Long> findAllIds();
 }
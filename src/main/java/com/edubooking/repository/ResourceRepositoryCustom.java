@@ -0,0 +1,21 @@
+package com.edubooking.repository;
+
+import com.edubooking.model.Resource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ResourceRepositoryCustom {
+
+    /**
+     * Filtered, sorted rows [offset, offset + limit) without the COUNT(*) a Page would add.
+     * Callers ask for one row more than they show to learn whether a next page exists.
+     */
+    List<Resource> findSlice(Specification<Resource> spec, Sort sort, long offset, int limit);
+
+    /**
+     * Ids of the rows matching {@code spec}, unordered; no entity or TEXT column is loaded.
+     */
+    List<Long> findIds(Specification<Resource> spec);
+}
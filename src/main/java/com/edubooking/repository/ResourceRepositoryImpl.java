@@ -0,0 +1,58 @@
+package com.edubooking.repository;
+
+import com.edubooking.model.Resource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * Picked up by Spring Data as the implementation of ResourceRepositoryCustom.
+ */
+public class ResourceRepositoryImpl implements ResourceRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Resource> findSlice(Specification<Resource> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Resource> query = cb.createQuery(Resource.class);
+
+        Root<Resource> r = query.from(Resource.class);
+
+        Predicate where = spec == null ? null : spec.toPredicate(r, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, r, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Resource> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+
+        Root<Resource> r = query.from(Resource.class);
+        query.select(r.get("id"));
+
+        Predicate where = spec == null ? null : spec.toPredicate(r, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,20 @@
+package com.edubooking.repository;
+
+import com.edubooking.model.TokenRevocation;
+import com.edubooking.repository.projection.RevocationEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    @Query("""
+        SELECT new com.edubooking.repository.projection.RevocationEntry(t.userId, t.revokedAt)
+        FROM TokenRevocation t
+        WHERE t.revokedAt > :since
+    """)
+    List<RevocationEntry> findRevokedSince(@Param("since") LocalDateTime since);
+}
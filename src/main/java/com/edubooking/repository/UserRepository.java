@@ -3,11 +3,32 @@ package com.edubooking.repository;
 import com.edubooking.model.User;
 
 //import org.springframework.data.domain.Example;
+import com.edubooking.repository.projection.RevocationEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User,Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    /**
+     * Users changed recently (role change, password reset...): tokens issued
+     * before the change carry stale claims. Served by idx_user_updated_at.
+     *
+     * updatedAt is also stamped on insert, so rows whose updatedAt is within a few
+     * seconds of createdAt are plain registrations and are left out; otherwise every
+     * new account would sit in the revocation set for a whole token lifetime.
+     */
+    @Query("""
+        SELECT new com.edubooking.repository.projection.RevocationEntry(u.id, u.updatedAt)
+        FROM User u
+        WHERE u.updatedAt > :since
+          AND (u.updatedAt - u.createdAt) by second > 5
+    """)
+    List<RevocationEntry> findChangedSince(@Param("since") LocalDateTime since);
 }
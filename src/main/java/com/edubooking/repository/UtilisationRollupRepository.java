@@ -0,0 +1,29 @@
+package com.edubooking.repository;
+
+import com.edubooking.model.UtilisationRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UtilisationRollupRepository extends JpaRepository<UtilisationRollup, Long> {
+
+    /**
+     * Non-empty hour buckets of a resource in [from, to), oldest first (uk_utilisation_bucket range scan).
+     */
+    @Query("""
+        SELECT u FROM UtilisationRollup u
+        WHERE u.resourceId = :resourceId
+        AND u.bucketStart >= :from
+        AND u.bucketStart < :to
+        AND u.bookedMinutes > 0
+        ORDER BY u.bucketStart
+    """)
+    List<UtilisationRollup> findBuckets(
+            @Param("resourceId") Long resourceId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+}
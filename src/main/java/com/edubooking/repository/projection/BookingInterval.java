@@ -0,0 +1,33 @@
+package com.edubooking.repository.projection;
+
+import com.edubooking.model.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Minimal view of a booking's occupied time range.
+ * Loaded with a constructor expression so no User / Resource rows are touched.
+ */
+public record BookingInterval(
+        Long bookingId,
+        Long resourceId,
+        LocalDateTime startTime,
+        LocalDateTime endTime
+) {
+
+    public static BookingInterval of(Booking booking) {
+        return new BookingInterval(
+                booking.getId(),
+                booking.getResource().getId(),
+                booking.getStartTime(),
+                booking.getEndTime()
+        );
+    }
+
+    /**
+     * Same rule as the repository queries: (start1 < end2) AND (end1 > start2)
+     */
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return startTime.isBefore(end) && endTime.isAfter(start);
+    }
+}
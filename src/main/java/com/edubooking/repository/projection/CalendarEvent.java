@@ -0,0 +1,20 @@
+package com.edubooking.repository.projection;
+
+import com.edubooking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a booking needed for one iCalendar VEVENT.
+ */
+public record CalendarEvent(
+        Long bookingId,
+        String resourceName,
+        String location,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        String purpose,
+        BookingStatus status,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,20 @@
+package com.edubooking.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row count and latest change of the bookings behind a calendar feed, plus the latest change of
+ * the resources they point at (events carry the resource's name and location); changes whenever
+ * the feed does.
+ */
+public record FeedVersion(Long count, LocalDateTime lastUpdated, LocalDateTime resourcesUpdated) {
+
+    /**
+     * The newer of the two change times: what a client has seen once it has read this feed.
+     */
+    public LocalDateTime latest() {
+        if (lastUpdated == null) return resourcesUpdated;
+        if (resourcesUpdated == null) return lastUpdated;
+        return lastUpdated.isAfter(resourcesUpdated) ? lastUpdated : resourcesUpdated;
+    }
+}
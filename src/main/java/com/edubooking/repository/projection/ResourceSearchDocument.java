@@ -0,0 +1,18 @@
+package com.edubooking.repository.projection;
+
+import com.edubooking.model.Resource;
+
+/**
+ * The searchable text of a resource, without the rest of the row.
+ */
+public record ResourceSearchDocument(Long id, String name, String description, String features) {
+
+    public static ResourceSearchDocument of(Resource resource) {
+        return new ResourceSearchDocument(
+                resource.getId(),
+                resource.getName(),
+                resource.getDescription(),
+                resource.getFeatures()
+        );
+    }
+}
@@ -0,0 +1,9 @@
+package com.edubooking.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tokens of userId issued before notBefore must be rejected.
+ */
+public record RevocationEntry(Long userId, LocalDateTime notBefore) {
+}
@@ -0,0 +1,38 @@
+package com.edubooking.repository.spec;
+
+import com.edubooking.model.Booking;
+import com.edubooking.model.BookingStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {}
+
+    public static Specification<Booking> hasStatus(BookingStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Booking> forResource(Long resourceId) {
+        return (root, query, cb) -> resourceId == null ? null : cb.equal(root.get("resource").get("id"), resourceId);
+    }
+
+    public static Specification<Booking> forUser(Long userId) {
+        return (root, query, cb) -> userId == null ? null : cb.equal(root.get("user").get("id"), userId);
+    }
+
+    // date range: bookings overlapping [from, to)
+    public static Specification<Booking> endsAfter(LocalDateTime from) {
+        return (root, query, cb) -> from == null ? null : cb.greaterThan(root.get("endTime"), from);
+    }
+
+    public static Specification<Booking> startsBefore(LocalDateTime to) {
+        return (root, query, cb) -> to == null ? null : cb.lessThan(root.get("startTime"), to);
+    }
+
+    // keyset: rows after the cursor in id DESC order
+    public static Specification<Booking> idBefore(Long cursor) {
+        return (root, query, cb) -> cursor == null ? null : cb.lessThan(root.get("id"), cursor);
+    }
+}
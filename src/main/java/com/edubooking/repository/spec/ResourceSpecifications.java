@@ -5,7 +5,7 @@ import com.edubooking.model.ResourceStatus;
 import com.edubooking.model.ResourceType;
 import org.springframework.data.jpa.domain.Specification;
 
-import jakarta.persistence.criteria.Predicate;
+import java.util.Collection;
 
 public final class ResourceSpecifications {
 
@@ -35,14 +35,7 @@ public final class ResourceSpecifications {
         };
     }
 
-    public static Specification<Resource> searchKeyword(String keyword) {
-        return (root, query, cb) -> {
-            if (keyword == null || keyword.isBlank()) return null;
-            String pattern = "%" + keyword.trim().toLowerCase() + "%";
-            Predicate nameLike = cb.like(cb.lower(root.get("name")), pattern);
-            Predicate descLike = cb.like(cb.lower(root.get("description")), pattern);
-            Predicate featuresLike = cb.like(cb.lower(root.get("features")), pattern);
-            return cb.or(nameLike, descLike, featuresLike);
-        };
+    public static Specification<Resource> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids == null ? null : root.get("id").in(ids);
     }
 }
@@ -0,0 +1,226 @@
+package com.edubooking.service;
+
+import com.edubooking.dto.AvailabilityChange;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fan-out of availability changes to Server-Sent Events subscribers.
+ *
+ * Every subscriber gets a bounded queue and one virtual thread that is the only writer to
+ * its connection: it blocks on the queue, sends whatever has piled up as one event, and
+ * sends a heartbeat comment when idle (which is also how dead connections are noticed).
+ * An idle subscriber is a parked virtual thread plus an async request, so thousands are cheap.
+ *
+ * Publishing only offers to queues and never blocks on the network. When a slow client's
+ * queue is full its pending changes are dropped and it gets a "resync" event instead,
+ * telling it to re-read availability once.
+ *
+ * Subscribers are per instance. Changes made on another node arrive through
+ * BookingIntervalIndex's sweep, so they are pushed up to one sweep interval late. As a backstop
+ * for anything a sweep cannot see, every subscriber also gets a "resync" event every
+ * edubooking.availability.stream.resync-ms.
+ */
+@Component
+public class AvailabilityHub {
+
+    public static final int MAX_RESOURCES_PER_SUBSCRIPTION = 100;
+
+    private final Map<Long, Set<Subscriber>> byResource = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final long timeoutMs;
+    private final Duration heartbeat;
+
+    public AvailabilityHub(
+            @Value("${edubooking.availability.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${edubooking.availability.stream.queue-capacity:256}") int queueCapacity,
+            @Value("${edubooking.availability.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${edubooking.availability.stream.heartbeat-seconds:25}") long heartbeatSeconds
+    ) {
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+        this.heartbeat = Duration.ofSeconds(heartbeatSeconds);
+    }
+
+    // ------------------------------------------------------------
+    // SUBSCRIBE
+    // ------------------------------------------------------------
+    public SseEmitter subscribe(Collection<Long> resourceIds) {
+        Set<Long> ids = resourceIds == null ? Set.of() : new LinkedHashSet<>(resourceIds);
+        if (ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "resourceIds are required");
+        }
+        if (ids.size() > MAX_RESOURCES_PER_SUBSCRIPTION) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_RESOURCES_PER_SUBSCRIPTION + " resources per subscription");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many availability subscribers");
+        }
+
+        // The client's EventSource reconnects by itself when the stream times out
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(ids), new ArrayBlockingQueue<>(queueCapacity));
+
+        subscribers.add(subscriber);
+        // add inside the compute: unsubscribe drops a set once it is empty, and an add after
+        // computeIfAbsent returned could land in a set that is no longer in the map
+        for (Long id : subscriber.resourceIds) {
+            byResource.compute(id, (k, set) -> {
+                Set<Subscriber> targets = set == null ? ConcurrentHashMap.newKeySet() : set;
+                targets.add(subscriber);
+                return targets;
+            });
+        }
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        subscriber.thread = Thread.ofVirtual()
+                .name("sse-availability")
+                .start(() -> pump(subscriber));
+        return emitter;
+    }
+
+    // ------------------------------------------------------------
+    // PUBLISH (call after commit)
+    // ------------------------------------------------------------
+    public void publish(Collection<AvailabilityChange> changes) {
+        for (AvailabilityChange change : changes) {
+            Set<Subscriber> targets = byResource.get(change.getResourceId());
+            if (targets == null) continue;
+
+            for (Subscriber subscriber : targets) {
+                if (!subscriber.queue.offer(change)) {
+                    subscriber.resync.set(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Asks every subscriber to re-read availability once; sent by its writer thread within a heartbeat.
+     */
+    @Scheduled(
+            initialDelayString = "${edubooking.availability.stream.resync-ms:600000}",
+            fixedDelayString = "${edubooking.availability.stream.resync-ms:600000}"
+    )
+    public void resyncAll() {
+        subscribers.forEach(s -> s.resync.set(true));
+    }
+
+    // Open subscriptions in total and reachable through one resource's set (for tests)
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    int subscriberCount(Long resourceId) {
+        Set<Subscriber> targets = byResource.get(resourceId);
+        return targets == null ? 0 : targets.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(s -> s.emitter.complete());
+    }
+
+
+    // ------------------------------------------------------------
+    // Per-subscriber writer (runs on the subscriber's virtual thread)
+    // ------------------------------------------------------------
+    private void pump(Subscriber subscriber) {
+        SseEmitter emitter = subscriber.emitter;
+        BlockingQueue<AvailabilityChange> queue = subscriber.queue;
+
+        try {
+            emitter.send(SseEmitter.event().name("ready").data(subscriber.resourceIds));
+
+            while (!subscriber.closed.get()) {
+                AvailabilityChange first = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+
+                if (subscriber.resync.getAndSet(false)) {
+                    queue.clear();
+                    emitter.send(SseEmitter.event().name("resync").data(subscriber.resourceIds));
+                    continue;
+                }
+                if (first == null) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                    continue;
+                }
+
+                List<AvailabilityChange> batch = new ArrayList<>();
+                batch.add(first);
+                queue.drainTo(batch);
+                emitter.send(SseEmitter.event().name("availability").data(batch, MediaType.APPLICATION_JSON));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // client went away or the emitter already completed
+            emitter.completeWithError(e);
+        } finally {
+            unsubscribe(subscriber);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) return;
+
+        subscribers.remove(subscriber);
+        for (Long id : subscriber.resourceIds) {
+            byResource.computeIfPresent(id, (k, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+        subscriberCount.decrementAndGet();
+
+        Thread thread = subscriber.thread;
+        if (thread != null && thread != Thread.currentThread()) {
+            thread.interrupt();
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> resourceIds;
+        private final BlockingQueue<AvailabilityChange> queue;
+        private final AtomicBoolean resync = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread thread;
+
+        Subscriber(SseEmitter emitter, Set<Long> resourceIds, BlockingQueue<AvailabilityChange> queue) {
+            this.emitter = emitter;
+            this.resourceIds = resourceIds;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.edubooking.service;
+
+import com.edubooking.model.BookingStatus;
+import com.edubooking.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Upper bound on the length of any booking that is or can still become APPROVED.
+ *
+ * The resource overlap check only scans bookings that start after {@code start - longest()},
+ * which keeps it a short index range however much history a resource has. That is only
+ * correct while no pending or approved booking is longer than the bound, so new bookings are
+ * capped at edubooking.bookings.max-duration, and at startup the bound is widened to the
+ * longest pending or approved booking already stored (rows written before the cap existed).
+ */
+@Component
+public class BookingDurationLimit {
+
+    private static final List<BookingStatus> OPEN = List.of(BookingStatus.PENDING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Duration maxDuration;
+
+    private volatile Duration longest;
+
+    public BookingDurationLimit(
+            BookingRepository bookingRepository,
+            @Value("${edubooking.bookings.max-duration:P31D}") Duration maxDuration
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.maxDuration = maxDuration;
+        this.longest = maxDuration;
+    }
+
+    // One full pass over the open bookings, once per start
+    @PostConstruct
+    public void load() {
+        Long stored = bookingRepository.findLongestDurationSeconds(OPEN);
+        longest = stored == null || stored <= maxDuration.getSeconds()
+                ? maxDuration
+                : Duration.ofSeconds(stored);
+    }
+
+    public void check(LocalDateTime start, LocalDateTime end) {
+        if (Duration.between(start, end).compareTo(maxDuration) > 0) {
+            throw new RuntimeException("A booking can last at most " + maxDuration.toDays() + " days");
+        }
+    }
+
+    public Duration longest() {
+        return longest;
+    }
+}
@@ -0,0 +1,183 @@
+package com.edubooking.service;
+
+import com.edubooking.dto.AvailabilityChange;
+import com.edubooking.model.Booking;
+import com.edubooking.model.BookingStatus;
+import com.edubooking.repository.BookingRepository;
+import com.edubooking.repository.projection.BookingInterval;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of every APPROVED booking, grouped per resource and sorted by start time.
+ *
+ * Overlap checks are answered from here instead of a range scan on the bookings table.
+ * Writes on this node update it right after commit; {@link #reconcile()} replays every
+ * booking whose updatedAt moved since the last sweep, which picks up writes made on other
+ * nodes and repairs any update that lost a race. So an entry can be stale for at most one
+ * sweep interval (edubooking.bookings.index-sweep-ms).
+ *
+ * The sweep is also the cross-node feed for {@link AvailabilityHub}: an interval that actually
+ * entered or left this copy during a sweep was written elsewhere (local writes update the index
+ * and publish themselves), so it is published to this node's subscribers.
+ *
+ * The DB stays the final authority: approveBooking still re-checks with a query before
+ * it writes, so a stale entry can make a check stricter or looser for that long, but can
+ * never let two approved bookings collide.
+ */
+@Component
+public class BookingIntervalIndex {
+
+    private static final Comparator<BookingInterval> BY_START =
+            Comparator.comparing(BookingInterval::startTime)
+                    .thenComparing(BookingInterval::bookingId);
+
+    // updatedAt is taken before commit (and by whichever node wrote it), so a sweep re-reads
+    // this far back to catch slow commits and clock skew between nodes
+    private static final Duration SWEEP_OVERLAP = Duration.ofSeconds(60);
+
+    private static final List<BookingStatus> RELEASED = List.of(BookingStatus.REJECTED, BookingStatus.CANCELLED);
+
+    private final BookingRepository bookingRepository;
+    private final AvailabilityHub availabilityHub;
+    private final Map<Long, ResourceIntervals> byResource = new ConcurrentHashMap<>();
+
+    // Start of the last sweep (or load); only the scheduler thread writes it after startup
+    private volatile LocalDateTime sweptUpTo;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository, AvailabilityHub availabilityHub) {
+        this.bookingRepository = bookingRepository;
+        this.availabilityHub = availabilityHub;
+    }
+
+    // Runs before the web server starts accepting requests
+    @PostConstruct
+    public void load() {
+        sweptUpTo = LocalDateTime.now();
+
+        Map<Long, ResourceIntervals> loaded = new HashMap<>();
+        for (BookingInterval interval : bookingRepository.findAllApprovedIntervals()) {
+            loaded.computeIfAbsent(interval.resourceId(), id -> new ResourceIntervals()).add(interval);
+        }
+        byResource.clear();
+        byResource.putAll(loaded);
+    }
+
+    public void add(Booking booking) {
+        add(BookingInterval.of(booking));
+    }
+
+    /**
+     * Returns false when the booking was not in the index (it was never approved).
+     */
+    public boolean remove(Booking booking) {
+        return remove(BookingInterval.of(booking));
+    }
+
+    /**
+     * Replays bookings changed since the last sweep: approved ones are (re-)added, rejected
+     * and cancelled ones removed. Idempotent, so the overlap window re-reading rows is harmless:
+     * only intervals that were not already in that state are published.
+     */
+    @Scheduled(fixedDelayString = "${edubooking.bookings.index-sweep-ms:5000}")
+    public void reconcile() {
+        LocalDateTime sweepStart = LocalDateTime.now();
+        LocalDateTime since = sweptUpTo.minus(SWEEP_OVERLAP);
+        List<AvailabilityChange> changes = new ArrayList<>();
+
+        for (BookingInterval interval : bookingRepository.findIntervalsChangedSince(since, List.of(BookingStatus.APPROVED))) {
+            if (add(interval)) changes.add(change(interval, true));
+        }
+        for (BookingInterval interval : bookingRepository.findIntervalsChangedSince(since, RELEASED)) {
+            if (remove(interval)) changes.add(change(interval, false));
+        }
+        sweptUpTo = sweepStart;
+
+        if (!changes.isEmpty()) availabilityHub.publish(changes);
+    }
+
+    private static AvailabilityChange change(BookingInterval interval, boolean booked) {
+        return new AvailabilityChange(
+                interval.resourceId(), interval.bookingId(), interval.startTime(), interval.endTime(), booked);
+    }
+
+    private boolean add(BookingInterval interval) {
+        return byResource.computeIfAbsent(interval.resourceId(), id -> new ResourceIntervals()).add(interval);
+    }
+
+    private boolean remove(BookingInterval interval) {
+        ResourceIntervals intervals = byResource.get(interval.resourceId());
+        return intervals != null && intervals.remove(interval);
+    }
+
+    public boolean hasOverlap(Long resourceId, LocalDateTime start, LocalDateTime end) {
+        ResourceIntervals intervals = byResource.get(resourceId);
+        if (intervals == null) return false;
+
+        for (BookingInterval candidate : intervals.candidates(resourceId, start, end)) {
+            if (candidate.overlaps(start, end)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Approved bookings of a resource that overlap [start, end), ordered by start time.
+     */
+    public List<BookingInterval> findOverlapping(Long resourceId, LocalDateTime start, LocalDateTime end) {
+        ResourceIntervals intervals = byResource.get(resourceId);
+        List<BookingInterval> result = new ArrayList<>();
+        if (intervals == null) return result;
+
+        for (BookingInterval candidate : intervals.candidates(resourceId, start, end)) {
+            if (candidate.overlaps(start, end)) result.add(candidate);
+        }
+        return result;
+    }
+
+
+    // ------------------------------------------------------------
+    // Sorted interval set of one resource
+    // ------------------------------------------------------------
+    private static final class ResourceIntervals {
+
+        private final ConcurrentSkipListSet<BookingInterval> byStart = new ConcurrentSkipListSet<>(BY_START);
+
+        // Longest booking ever added (seconds). Only grows, so it is always a safe upper bound.
+        private final AtomicLong maxDurationSeconds = new AtomicLong();
+
+        boolean add(BookingInterval interval) {
+            long seconds = Duration.between(interval.startTime(), interval.endTime()).getSeconds() + 1;
+            maxDurationSeconds.accumulateAndGet(seconds, Math::max);
+            return byStart.add(interval);
+        }
+
+        boolean remove(BookingInterval interval) {
+            return byStart.remove(interval);
+        }
+
+        /**
+         * Anything overlapping [start, end) must start before {@code end} and
+         * no earlier than {@code start - maxDuration}.
+         */
+        NavigableSet<BookingInterval> candidates(Long resourceId, LocalDateTime start, LocalDateTime end) {
+            BookingInterval from = new BookingInterval(Long.MIN_VALUE, resourceId,
+                    start.minusSeconds(maxDurationSeconds.get()), start);
+            BookingInterval to = new BookingInterval(Long.MIN_VALUE, resourceId, end, end);
+            if (BY_START.compare(from, to) >= 0) return new ConcurrentSkipListSet<>(BY_START);
+            return byStart.subSet(from, true, to, false);
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package com.edubooking.service;
 
+import com.edubooking.dto.BatchAvailabilityResponse;
 import com.edubooking.dto.BookingRequest;
+import com.edubooking.dto.BookingResponse;
+import com.edubooking.dto.BookingSeriesRequest;
+import com.edubooking.dto.BulkDecisionResponse;
+import com.edubooking.dto.TimeWindow;
+import com.edubooking.dto.common.CursorPage;
 import com.edubooking.model.Booking;
+import com.edubooking.model.BookingStatus;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -10,15 +18,33 @@ public interface BookingService {
 
     Booking createBooking(Long userId, BookingRequest request);
 
-    List<Booking> getMyBookings(Long userId);
+    List<Booking> createSeries(Long userId, BookingSeriesRequest request);
 
-    List<Booking> getAllBookings();
+    List<BookingResponse> getMyBookings(Long userId);
+
+    CursorPage<BookingResponse> getBookings(
+            BookingStatus status,
+            Long resourceId,
+            Long userId,
+            LocalDateTime from,
+            LocalDateTime to,
+            Long cursor,
+            Integer limit
+    );
 
     Booking approveBooking(Long bookingId);
 
     Booking rejectBooking(Long bookingId);
 
+    BulkDecisionResponse approveBookings(List<Long> bookingIds);
+
+    BulkDecisionResponse rejectBookings(List<Long> bookingIds);
+
     void cancelBooking(Long bookingId, Long userId, boolean isAdmin);
 
     boolean isAvailable(Long resourceId, LocalDateTime start, LocalDateTime end);
+
+    BatchAvailabilityResponse checkAvailability(List<Long> resourceIds, List<TimeWindow> windows);
+
+    List<TimeWindow> findFreeSlots(Long resourceId, LocalDateTime from, LocalDateTime to, Duration minDuration);
 }
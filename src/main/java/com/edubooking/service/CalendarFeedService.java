@@ -0,0 +1,33 @@
+package com.edubooking.service;
+
+import com.edubooking.repository.projection.FeedVersion;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface CalendarFeedService {
+
+    /**
+     * Secret part of a user's feed URL; stable for as long as the feed secret is.
+     */
+    String feedToken(Long userId);
+
+    boolean isValidFeedToken(Long userId, String token);
+
+    FeedVersion getUserFeedVersion(Long userId);
+
+    FeedVersion getResourceFeedVersion(Long resourceId);
+
+    /**
+     * Writes the user's .ics feed. With {@code since} set, only bookings changed after it
+     * (cancelled and rejected ones as STATUS:CANCELLED); otherwise upcoming and recent
+     * pending/approved bookings.
+     */
+    void writeUserFeed(Long userId, LocalDateTime since, OutputStream out) throws IOException;
+
+    /**
+     * Public feed of a resource's approved bookings; events carry no user details.
+     */
+    void writeResourceFeed(Long resourceId, LocalDateTime since, OutputStream out) throws IOException;
+}
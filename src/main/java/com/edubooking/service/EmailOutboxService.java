@@ -0,0 +1,9 @@
+package com.edubooking.service;
+
+public interface EmailOutboxService {
+    /**
+     * Queue an email. Joins the caller's transaction, so the email exists
+     * only if the change that triggered it commits.
+     */
+    void enqueue(String to, String subject, String message);
+}
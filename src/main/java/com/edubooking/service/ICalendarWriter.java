@@ -0,0 +1,111 @@
+package com.edubooking.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Minimal RFC 5545 writer: one property per call, written straight through to the stream.
+ *
+ * Lines end in CRLF and are folded at 75 octets (never inside a UTF-8 sequence); TEXT values
+ * are escaped. Times are stored as server-local LocalDateTime and written as UTC.
+ */
+public class ICalendarWriter {
+
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private static final DateTimeFormatter UTC_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final Writer writer;
+
+    public ICalendarWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public void beginCalendar(String name) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//EduBooking//Bookings//EN");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        text("X-WR-CALNAME", name);
+        // hint for clients that support it; most poll on their own schedule anyway
+        line("REFRESH-INTERVAL;VALUE=DURATION:PT1H");
+        line("X-PUBLISHED-TTL:PT1H");
+    }
+
+    public void endCalendar() throws IOException {
+        line("END:VCALENDAR");
+        writer.flush();
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    public void line(String line) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int length = utf8Length(codePoint);
+
+            if (octets + length > MAX_LINE_OCTETS) {
+                writer.write("\r\n ");
+                octets = 1; // the leading space of the continuation line
+            }
+            writer.write(line, i, Character.charCount(codePoint));
+            octets += length;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * A TEXT property; skipped when the value is null or blank.
+     */
+    public void text(String name, String value) throws IOException {
+        if (value == null || value.isBlank()) return;
+        line(name + ":" + escape(value));
+    }
+
+    public void time(String name, LocalDateTime value) throws IOException {
+        if (value == null) return;
+        line(name + ":" + utc(value));
+    }
+
+    static String utc(LocalDateTime value) {
+        return value.atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneOffset.UTC)
+                .format(UTC_FORMAT);
+    }
+
+    static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case ';' -> sb.append("\\;");
+                case ',' -> sb.append("\\,");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> { } // CRLF becomes a single \n
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) return 1;
+        if (codePoint < 0x800) return 2;
+        if (codePoint < 0x10000) return 3;
+        return 4;
+    }
+}
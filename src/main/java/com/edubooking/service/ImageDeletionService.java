@@ -0,0 +1,9 @@
+package com.edubooking.service;
+
+public interface ImageDeletionService {
+    /**
+     * Queue a stored image for deletion. Joins the caller's transaction, so the
+     * image is only deleted if the change that stopped referencing it commits.
+     */
+    void enqueue(String publicId);
+}
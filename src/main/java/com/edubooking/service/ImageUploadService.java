@@ -1,40 +1,27 @@
 package com.edubooking.service;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
-import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 
-@Service
-public class ImageUploadService {
-
-    private final Cloudinary cloudinary;
-
-    public ImageUploadService(Cloudinary cloudinary) {
-        this.cloudinary = cloudinary;
-    }
+/**
+ * Image storage for resource pictures.
+ * The implementation is picked by edubooking.images.provider (cloudinary | local).
+ */
+public interface ImageUploadService {
 
     // ⭐ Upload and return both URL + publicId
-    public Map<String, String> uploadImage(MultipartFile file) throws IOException {
+    Map<String, String> uploadImage(MultipartFile file) throws IOException;
 
-        Map uploadResult = cloudinary.uploader().upload(
-                file.getBytes(),
-                ObjectUtils.asMap(
-                        "folder", "eduBooking/resources"
-                )
-        );
-
-        return Map.of(
-                "url", uploadResult.get("secure_url").toString(),
-                "publicId", uploadResult.get("public_id").toString()
-        );
-    }
+    // Same, for an image already on local disk (e.g. extracted from an import archive)
+    Map<String, String> uploadImage(Path file) throws IOException;
 
     // ⭐ Delete using publicId
-    public void deleteImage(String publicId) throws IOException {
-        cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
-    }
+    void deleteImage(String publicId) throws IOException;
+
+    // Bulk delete; ids that are already gone count as deleted
+    void deleteImages(List<String> publicIds) throws IOException;
 }
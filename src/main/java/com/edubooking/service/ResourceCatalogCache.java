@@ -0,0 +1,131 @@
+package com.edubooking.service;
+
+import com.edubooking.dto.common.PaginatedResponse;
+import com.edubooking.dto.resource.ResourceQuery;
+import com.edubooking.dto.resource.ResourceResponse;
+import com.edubooking.model.CatalogVersion;
+import com.edubooking.repository.CatalogVersionRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the public catalog endpoints.
+ *
+ * "resources" holds single resources by id, "resourceCatalog" holds listing pages by
+ * normalised {@link ResourceQuery}, "resourceCounts" holds total counts by filter only
+ * (shared by every page and sort of the same filter). Size and TTL come from spring.cache.caffeine.spec;
+ * hit/miss counts are published as cache.gets on /actuator/metrics.
+ *
+ * The catalog version is the catalog_version row, bumped inside every resource write
+ * transaction, so all nodes agree on it. Entries are stamped with the version read before
+ * they were loaded and only served while it is still current: a write on another node
+ * retires them once this node re-reads the version (every version-ttl-ms at most), and a
+ * load that raced a write is stamped too old to be served again.
+ */
+@Component
+public class ResourceCatalogCache {
+
+    public static final String RESOURCES = "resources";
+    public static final String CATALOG = "resourceCatalog";
+    public static final String COUNTS = "resourceCounts";
+
+    private final Cache resources;
+    private final Cache catalog;
+    private final Cache counts;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final long versionTtlNanos;
+
+    private volatile SeenVersion seen;
+
+    public ResourceCatalogCache(CacheManager cacheManager,
+                                CatalogVersionRepository catalogVersionRepository,
+                                @Value("${edubooking.resources.catalog-version-ttl-ms:1000}") long versionTtlMs) {
+        this.resources = cacheManager.getCache(RESOURCES);
+        this.catalog = cacheManager.getCache(CATALOG);
+        this.counts = cacheManager.getCache(COUNTS);
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.versionTtlNanos = TimeUnit.MILLISECONDS.toNanos(versionTtlMs);
+    }
+
+    // Seeded with the current time so versions handed out before a DB reset are not reused after it
+    @PostConstruct
+    public void ensureVersionRow() {
+        if (catalogVersionRepository.existsById(CatalogVersion.ID)) return;
+        try {
+            catalogVersionRepository.save(new CatalogVersion(CatalogVersion.ID, System.currentTimeMillis()));
+        } catch (DataIntegrityViolationException e) {
+            // another node seeded it first
+        }
+    }
+
+    public ResourceResponse getResource(Long id, Supplier<ResourceResponse> loader) {
+        return readThrough(resources, id, loader);
+    }
+
+    public PaginatedResponse<ResourceResponse> getPage(ResourceQuery query,
+                                                       Supplier<PaginatedResponse<ResourceResponse>> loader) {
+        return readThrough(catalog, query, loader);
+    }
+
+    public long getCount(ResourceQuery filter, Supplier<Long> loader) {
+        return readThrough(counts, filter.filterKey(), loader);
+    }
+
+    /**
+     * Changes on every catalog write on any node; the ETag of GET /resources.
+     */
+    public long version() {
+        SeenVersion current = seen;
+        if (current != null && System.nanoTime() - current.readAtNanos() < versionTtlNanos) {
+            return current.value();
+        }
+        long value = catalogVersionRepository.findVersion().orElse(0L);
+        seen = new SeenVersion(value, System.nanoTime());
+        return value;
+    }
+
+    /**
+     * Call inside the transaction that writes resources.
+     */
+    public void recordWrite() {
+        catalogVersionRepository.bump();
+    }
+
+    /**
+     * Call after the write has been committed: drops the written id plus every listing
+     * page and makes the next read see the new version right away on this node.
+     */
+    public void invalidate(Long resourceId) {
+        seen = null;
+        resources.evict(resourceId);
+        catalog.clear();
+        counts.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T readThrough(Cache cache, Object key, Supplier<T> loader) {
+        long current = version();
+
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null && cached.get() instanceof Stamped stamped && stamped.version() == current) {
+            return (T) stamped.value();
+        }
+
+        T loaded = loader.get();
+        cache.put(key, new Stamped(current, loaded));
+        return loaded;
+    }
+
+    private record SeenVersion(long value, long readAtNanos) {
+    }
+
+    private record Stamped(long version, Object value) {
+    }
+}
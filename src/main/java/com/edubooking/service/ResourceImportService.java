@@ -0,0 +1,15 @@
+package com.edubooking.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ResourceImportService {
+    /**
+     * Create resources from an NDJSON file (one ResourceImportRow per line) and a zip of
+     * their images, writing one ResourceImportResult line to {@code progress} per row as
+     * soon as its batch is stored.
+     */
+    void importResources(MultipartFile rows, MultipartFile images, OutputStream progress) throws IOException;
+}
@@ -0,0 +1,72 @@
+package com.edubooking.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped per-resource locks for check-then-write sections on a single node.
+ *
+ * Bookings for the same resource queue up here instead of holding a pooled DB connection
+ * while they wait on the resource row lock; bookings for other resources almost never
+ * share a stripe, so they run in parallel. The row lock (ResourceRepository.findByIdForUpdate)
+ * is still what makes the section safe across nodes.
+ */
+@Component
+public class ResourceLockManager {
+
+    private static final int STRIPES = 256; // power of two
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public ResourceLockManager() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(Long resourceId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeOf(resourceId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Locks every stripe the resources map to, always in ascending stripe order
+     * so two multi-resource sections can never deadlock each other.
+     */
+    public <T> T withLocks(Collection<Long> resourceIds, Supplier<T> action) {
+        TreeSet<Integer> needed = new TreeSet<>();
+        for (Long id : resourceIds) {
+            needed.add(stripeOf(id));
+        }
+
+        List<ReentrantLock> held = new ArrayList<>(needed.size());
+        try {
+            for (int stripe : needed) {
+                ReentrantLock lock = stripes[stripe];
+                lock.lock();
+                held.add(lock);
+            }
+            return action.get();
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+
+    int stripeOf(Long resourceId) {
+        long h = resourceId * 0x9E3779B97F4A7C15L; // spread sequential ids
+        return (int) (h >>> 32) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,273 @@
+package com.edubooking.service;
+
+import com.edubooking.model.Resource;
+import com.edubooking.repository.ResourceRepository;
+import com.edubooking.repository.projection.ResourceSearchDocument;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the name, description and features of every resource.
+ *
+ * Replaces the LIKE '%kw%' scan: each query word is matched as a prefix against a sorted
+ * term dictionary, every word must match, and hits are ranked by TF-IDF with name matches
+ * weighted over features, and features over description.
+ *
+ * Built at startup and kept current by ResourceServiceImpl on create, update and delete.
+ * Writes made on other nodes are swept in by {@link #catchUp()}: whenever the shared catalog
+ * version has moved past the one this copy was brought up to, resources whose updatedAt moved
+ * are re-indexed and ids no longer in the table are dropped. Every search catches up first,
+ * so a listing page cached under catalog version V was ranked by an index at V or later;
+ * the scheduled sweep only keeps that first search cheap.
+ */
+@Component
+public class ResourceSearchIndex {
+
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double FEATURES_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    // A word that only matches as a prefix ("proj" -> "projector") counts for less than an exact hit
+    private static final double PREFIX_FACTOR = 0.5;
+
+    // updatedAt is taken before commit, so a sweep re-reads this far back (as BookingIntervalIndex does)
+    private static final Duration SWEEP_OVERLAP = Duration.ofSeconds(60);
+
+    private final ResourceRepository resourceRepository;
+    private final ResourceCatalogCache resourceCatalogCache;
+
+    // term -> (resourceId -> field-weighted term frequency)
+    private final TreeMap<String, Map<Long, Double>> postings = new TreeMap<>();
+
+    // resourceId -> terms it was indexed under, so updates and deletes can unlink it
+    private final Map<Long, Set<String>> termsByResource = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // One sweep at a time; searches that find the index behind wait for it
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    // Catalog version this copy has caught up to, and the start of the sweep (or load) that did it
+    private volatile long indexedVersion;
+    private volatile LocalDateTime sweptUpTo;
+
+    public ResourceSearchIndex(ResourceRepository resourceRepository, ResourceCatalogCache resourceCatalogCache) {
+        this.resourceRepository = resourceRepository;
+        this.resourceCatalogCache = resourceCatalogCache;
+    }
+
+    // Runs before the web server starts accepting requests
+    @PostConstruct
+    public void load() {
+        // read before the documents, so a write racing the load makes the next search sweep
+        long version = resourceCatalogCache.version();
+        LocalDateTime loadStart = LocalDateTime.now();
+        List<ResourceSearchDocument> documents = resourceRepository.findAllSearchDocuments();
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsByResource.clear();
+            documents.forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        sweptUpTo = loadStart;
+        indexedVersion = version;
+    }
+
+    @Scheduled(fixedDelayString = "${edubooking.resources.search-sweep-ms:5000}")
+    public void reconcile() {
+        catchUp();
+    }
+
+    /**
+     * Applies resource writes from any node, if the catalog version says there were any.
+     * Idempotent: rows re-read through the overlap window are simply indexed again.
+     */
+    public void catchUp() {
+        if (resourceCatalogCache.version() == indexedVersion) return;
+
+        sweepLock.lock();
+        try {
+            long version = resourceCatalogCache.version();
+            if (version == indexedVersion) return; // another caller just swept
+
+            LocalDateTime sweepStart = LocalDateTime.now();
+            List<ResourceSearchDocument> changed =
+                    resourceRepository.findSearchDocumentsChangedSince(sweptUpTo.minus(SWEEP_OVERLAP));
+            Set<Long> existing = new HashSet<>(resourceRepository.findAllIds());
+
+            lock.writeLock().lock();
+            try {
+                for (ResourceSearchDocument document : changed) {
+                    unindex(document.id());
+                    index(document);
+                }
+                termsByResource.keySet().stream()
+                        .filter(id -> !existing.contains(id))
+                        .toList()
+                        .forEach(this::unindex);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            sweptUpTo = sweepStart;
+            indexedVersion = version;
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    /**
+     * Index a new resource or re-index a changed one.
+     */
+    public void put(Resource resource) {
+        ResourceSearchDocument document = ResourceSearchDocument.of(resource);
+
+        lock.writeLock().lock();
+        try {
+            unindex(document.id());
+            index(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long resourceId) {
+        lock.writeLock().lock();
+        try {
+            unindex(resourceId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resources matching every word of the query, best match first.
+     * A query without any word characters matches nothing.
+     */
+    public LinkedHashMap<Long, Double> search(String query) {
+        catchUp();
+
+        List<String> words = tokenize(query).stream().distinct().toList();
+        Map<Long, Double> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int documentCount = termsByResource.size();
+
+            for (int i = 0; i < words.size(); i++) {
+                Map<Long, Double> wordScores = scoreWord(words.get(i), documentCount);
+
+                if (i == 0) {
+                    scores.putAll(wordScores);
+                } else {
+                    scores.keySet().retainAll(wordScores.keySet());
+                    scores.replaceAll((id, score) -> score + wordScores.get(id));
+                }
+                if (scores.isEmpty()) break;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        LinkedHashMap<Long, Double> ranked = new LinkedHashMap<>();
+        scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> ranked.put(e.getKey(), e.getValue()));
+        return ranked;
+    }
+
+
+    // ------------------------------------------------------------
+    // Internals (callers hold the lock)
+    // ------------------------------------------------------------
+
+    /**
+     * Score of every resource containing a term that starts with {@code word}.
+     */
+    private Map<Long, Double> scoreWord(String word, int documentCount) {
+        Map<Long, Double> result = new HashMap<>();
+
+        SortedMap<String, Map<Long, Double>> matches = postings.subMap(word, word + Character.MAX_VALUE);
+        for (Map.Entry<String, Map<Long, Double>> term : matches.entrySet()) {
+            Map<Long, Double> docs = term.getValue();
+            double idf = Math.log(1.0 + (double) documentCount / docs.size());
+            double factor = term.getKey().equals(word) ? 1.0 : PREFIX_FACTOR;
+
+            for (Map.Entry<Long, Double> doc : docs.entrySet()) {
+                result.merge(doc.getKey(), doc.getValue() * idf * factor, Double::sum);
+            }
+        }
+        return result;
+    }
+
+    private void index(ResourceSearchDocument document) {
+        Map<String, Double> frequencies = new HashMap<>();
+        addField(frequencies, document.name(), NAME_WEIGHT);
+        addField(frequencies, document.features(), FEATURES_WEIGHT);
+        addField(frequencies, document.description(), DESCRIPTION_WEIGHT);
+
+        for (Map.Entry<String, Double> e : frequencies.entrySet()) {
+            postings.computeIfAbsent(e.getKey(), t -> new HashMap<>()).put(document.id(), e.getValue());
+        }
+        termsByResource.put(document.id(), new HashSet<>(frequencies.keySet()));
+    }
+
+    private void unindex(Long resourceId) {
+        Set<String> terms = termsByResource.remove(resourceId);
+        if (terms == null) return;
+
+        for (String term : terms) {
+            Map<Long, Double> docs = postings.get(term);
+            if (docs == null) continue;
+            docs.remove(resourceId);
+            if (docs.isEmpty()) postings.remove(term);
+        }
+    }
+
+    /**
+     * Sub-linear term frequency so a word repeated ten times in a description
+     * does not outrank a single hit in the name.
+     */
+    private static void addField(Map<String, Double> frequencies, String text, double weight) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String token : tokenize(text)) {
+            counts.merge(token, 1, Integer::sum);
+        }
+        counts.forEach((token, count) ->
+                frequencies.merge(token, weight * (1.0 + Math.log(count)), Double::sum));
+    }
+
+    /**
+     * Lower-cased runs of letters and digits; everything else separates words.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return Collections.emptyList();
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+}
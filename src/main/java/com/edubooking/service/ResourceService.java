@@ -27,6 +27,9 @@ ResourceResponse createResource(CreateResourceRequest request, MultipartFile ima
 
     void deleteResource(Long id);
 
+    // Changes whenever any resource is created, updated or deleted, on any node
+    long getCatalogVersion();
+
     PaginatedResponse<ResourceResponse> getResources(
             Integer page,
             Integer size,
@@ -36,7 +39,8 @@ ResourceResponse createResource(CreateResourceRequest request, MultipartFile ima
             Integer minCapacity,
             Integer maxCapacity,
             String location,
-            String sort
+            String sort,
+            String mode
     );
 
 
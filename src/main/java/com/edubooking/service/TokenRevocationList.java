@@ -0,0 +1,183 @@
+package com.edubooking.service;
+
+import com.edubooking.config.JwtUtil;
+import com.edubooking.model.TokenRevocation;
+import com.edubooking.repository.TokenRevocationRepository;
+import com.edubooking.repository.UserRepository;
+import com.edubooking.repository.projection.RevocationEntry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Users whose older tokens must be rejected, kept in memory so JwtFilter
+ * never has to hit the DB.
+ *
+ * Only changes younger than the token lifetime matter (older tokens have expired anyway),
+ * so the set stays small. It is rebuilt in the background from token_revocations and
+ * recently updated users; a Bloom filter in front of it answers "not revoked" for almost
+ * every request without touching the map.
+ *
+ * Local revocations are applied once their transaction commits, and a refresh keeps any
+ * that were applied after its reads began (the reads may have missed them).
+ */
+@Component
+public class TokenRevocationList {
+
+    private final UserRepository userRepository;
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final long tokenLifetimeMillis;
+
+    private volatile Snapshot snapshot = Snapshot.build(Map.of());
+
+    // Revocations applied on this node, until a refresh that started after them has read them back
+    private final Map<Long, LocalRevocation> applied = new HashMap<>();
+
+    public TokenRevocationList(UserRepository userRepository,
+                               TokenRevocationRepository tokenRevocationRepository,
+                               JwtUtil jwtUtil) {
+        this.userRepository = userRepository;
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.tokenLifetimeMillis = jwtUtil.getExpirationMillis();
+    }
+
+    public boolean isRevoked(long userId, Date issuedAt) {
+        Snapshot current = snapshot;
+        if (!current.bloom.mightContain(userId)) return false;
+
+        LocalDateTime notBefore = current.notBefore.get(userId);
+        if (notBefore == null) return false;
+        if (issuedAt == null) return true;
+
+        // iat has second precision: compare at the same precision
+        LocalDateTime issued = LocalDateTime.ofInstant(issuedAt.toInstant(), ZoneId.systemDefault());
+        return issued.isBefore(notBefore.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Revoke every token of this user issued until now. Persisted, so other nodes
+     * pick it up on their next refresh. Joins the caller's transaction, so the row commits
+     * together with the change that caused it, and is applied locally only after that
+     * commit: a rolled-back change locks nobody out.
+     *
+     * Explicit rows are what cover deleted users: they have no users row left for
+     * the updated_at scan in refresh() to find.
+     */
+    public void revoke(Long userId, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        tokenRevocationRepository.save(new TokenRevocation(null, userId, now, reason));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(userId, now);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(userId, now);
+            }
+        });
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${edubooking.auth.revocation-refresh-ms:30000}")
+    public void refresh() {
+        long readStart = System.nanoTime();
+        LocalDateTime since = LocalDateTime.now().minus(tokenLifetimeMillis, ChronoUnit.MILLIS);
+
+        Map<Long, LocalDateTime> entries = new HashMap<>();
+        merge(entries, tokenRevocationRepository.findRevokedSince(since));
+        merge(entries, userRepository.findChangedSince(since));
+
+        synchronized (this) {
+            // applied after the reads began: committed, but possibly not seen by them
+            applied.values().removeIf(r -> r.appliedAtNanos() - readStart < 0);
+            applied.forEach((userId, r) -> entries.merge(userId, r.notBefore(), TokenRevocationList::later));
+            snapshot = Snapshot.build(entries);
+        }
+    }
+
+    private synchronized void apply(Long userId, LocalDateTime notBefore) {
+        applied.merge(userId, new LocalRevocation(notBefore, System.nanoTime()),
+                (a, b) -> new LocalRevocation(later(a.notBefore(), b.notBefore()), b.appliedAtNanos()));
+
+        Map<Long, LocalDateTime> entries = new HashMap<>(snapshot.notBefore);
+        entries.merge(userId, notBefore, TokenRevocationList::later);
+        snapshot = Snapshot.build(entries);
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private void merge(Map<Long, LocalDateTime> entries, List<RevocationEntry> found) {
+        for (RevocationEntry e : found) {
+            entries.merge(e.userId(), e.notBefore(), TokenRevocationList::later);
+        }
+    }
+
+
+    private record LocalRevocation(LocalDateTime notBefore, long appliedAtNanos) {
+    }
+
+
+    // ------------------------------------------------------------
+    // Immutable view swapped in on every refresh
+    // ------------------------------------------------------------
+    private record Snapshot(LongBloomFilter bloom, Map<Long, LocalDateTime> notBefore) {
+
+        static Snapshot build(Map<Long, LocalDateTime> entries) {
+            LongBloomFilter bloom = new LongBloomFilter(entries.size());
+            entries.keySet().forEach(bloom::add);
+            return new Snapshot(bloom, Map.copyOf(entries));
+        }
+    }
+
+    /**
+     * ~10 bits per entry and 3 probes: about 1-2% false positives, which only cost a map lookup.
+     */
+    private static final class LongBloomFilter {
+
+        private final long[] words;
+        private final int mask;
+
+        LongBloomFilter(int expected) {
+            int bits = Integer.highestOneBit(Math.max(64, expected * 10 - 1)) << 1;
+            this.words = new long[bits >>> 6];
+            this.mask = bits - 1;
+        }
+
+        void add(long value) {
+            long h = mix(value);
+            for (int i = 0; i < 3; i++) {
+                int bit = (int) (h >>> (i * 21)) & mask;
+                words[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        boolean mightContain(long value) {
+            long h = mix(value);
+            for (int i = 0; i < 3; i++) {
+                int bit = (int) (h >>> (i * 21)) & mask;
+                if ((words[bit >>> 6] & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+            z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return z ^ (z >>> 33);
+        }
+    }
+}
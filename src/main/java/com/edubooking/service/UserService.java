@@ -0,0 +1,9 @@
+package com.edubooking.service;
+
+import com.edubooking.model.Role;
+import com.edubooking.model.User;
+
+public interface UserService {
+    User changeRole(Long userId, Role role);
+    void deleteUser(Long userId);
+}
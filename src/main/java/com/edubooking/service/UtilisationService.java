@@ -0,0 +1,28 @@
+package com.edubooking.service;
+
+import com.edubooking.dto.UtilisationResponse;
+import com.edubooking.repository.projection.BookingInterval;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface UtilisationService {
+
+    /**
+     * Bookings that just became APPROVED. Joins the caller's transaction.
+     */
+    void addApproved(Collection<BookingInterval> intervals);
+
+    /**
+     * Bookings that just left APPROVED (rejected or cancelled). Joins the caller's transaction.
+     */
+    void removeApproved(Collection<BookingInterval> intervals);
+
+    UtilisationResponse getUtilisation(Long resourceId, LocalDate from, LocalDate to);
+
+    /**
+     * Recompute every rollup from the approved bookings (backfill / repair).
+     * Returns the number of bookings replayed.
+     */
+    int rebuild();
+}
@@ -1,6 +1,13 @@
 package com.edubooking.service.impl;
 
+import com.edubooking.dto.AvailabilityChange;
+import com.edubooking.dto.BatchAvailabilityResponse;
 import com.edubooking.dto.BookingRequest;
+import com.edubooking.dto.BookingResponse;
+import com.edubooking.dto.BookingSeriesRequest;
+import com.edubooking.dto.BulkDecisionResponse;
+import com.edubooking.dto.TimeWindow;
+import com.edubooking.dto.common.CursorPage;
 import com.edubooking.model.Booking;
 import com.edubooking.model.BookingStatus;
 import com.edubooking.model.Resource;
@@ -8,30 +15,77 @@ import com.edubooking.model.User;
 import com.edubooking.repository.BookingRepository;
 import com.edubooking.repository.ResourceRepository;
 import com.edubooking.repository.UserRepository;
+import com.edubooking.repository.projection.BookingInterval;
+import com.edubooking.repository.spec.BookingSpecifications;
+import com.edubooking.service.AvailabilityHub;
+import com.edubooking.service.BookingDurationLimit;
+import com.edubooking.service.BookingIntervalIndex;
 import com.edubooking.service.BookingService;
-import com.edubooking.service.EmailService;
+import com.edubooking.service.EmailOutboxService;
+import com.edubooking.service.ResourceLockManager;
+import com.edubooking.service.UtilisationService;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingServiceImpl implements BookingService {
 
+    private static final int MAX_BATCH_RESOURCES = 100;
+    private static final int MAX_BATCH_WINDOWS = 50;
+    private static final int DEFAULT_PAGE_LIMIT = 50;
+    private static final int MAX_PAGE_LIMIT = 200;
+    private static final Duration MAX_FREE_SLOT_RANGE = Duration.ofDays(93);
+    private static final int MAX_SERIES_OCCURRENCES = 52;
+    private static final int MAX_BULK_DECISIONS = 500;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ResourceRepository resourceRepository;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ResourceLockManager resourceLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final UtilisationService utilisationService;
+    private final AvailabilityHub availabilityHub;
+    private final BookingDurationLimit bookingDurationLimit;
 
     public BookingServiceImpl(
             BookingRepository bookingRepository,
             UserRepository userRepository,
-            ResourceRepository resourceRepository, EmailService emailService
+            ResourceRepository resourceRepository, EmailOutboxService emailOutboxService,
+            BookingIntervalIndex bookingIntervalIndex,
+            ResourceLockManager resourceLockManager,
+            TransactionTemplate transactionTemplate,
+            UtilisationService utilisationService,
+            AvailabilityHub availabilityHub,
+            BookingDurationLimit bookingDurationLimit
     ) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.resourceRepository = resourceRepository;
-        this.emailService = emailService;
+        this.emailOutboxService = emailOutboxService;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.resourceLockManager = resourceLockManager;
+        this.transactionTemplate = transactionTemplate;
+        this.utilisationService = utilisationService;
+        this.availabilityHub = availabilityHub;
+        this.bookingDurationLimit = bookingDurationLimit;
     }
 
     // ------------------------------------------------------------
@@ -40,30 +94,37 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public Booking createBooking(Long userId, BookingRequest request) {
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Resource resource = resourceRepository.findById(request.getResourceId())
-                .orElseThrow(() -> new RuntimeException("Resource not found"));
-
         LocalDateTime start = request.getStartTime();
         LocalDateTime end = request.getEndTime();
 
         if (start.isAfter(end)) {
             throw new RuntimeException("Start time cannot be after end time");
         }
+        bookingDurationLimit.check(start, end);
+
+        // Check-then-insert runs under the resource lock (local stripe + DB row lock)
+        return resourceLockManager.withLock(request.getResourceId(), () ->
+                transactionTemplate.execute(tx -> insertBooking(userId, request, start, end)));
+    }
+
+    private Booking insertBooking(Long userId, BookingRequest request, LocalDateTime start, LocalDateTime end) {
+
+        // Lock the resource row FIRST so every later read in this transaction sees
+        // whatever the previous lock holder committed
+        Resource resource = resourceRepository.findByIdForUpdate(request.getResourceId())
+                .orElseThrow(() -> new RuntimeException("Resource not found"));
 
-        // 1️⃣ Check if resource is already booked in this time
-        List<Booking> overlaps = bookingRepository.findOverlappingBookings(resource, start, end);
-        if (!overlaps.isEmpty()) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // 1️⃣ Check if resource is already booked in this time. Asked of the DB (a bounded EXISTS),
+        // not the node-local index: under the row lock it sees every node's committed approvals
+        if (bookingRepository.existsOverlappingBooking(resource.getId(), start, end, bookingDurationLimit.longest())) {
             throw new RuntimeException("This time slot is already booked for the selected resource.");
         }
 
         // 2️⃣ Check if user already has a booking at this time
-        List<Booking> userOverlaps =
-                bookingRepository.findOverlappingUserBookings(userId, start, end);
-
-        if (!userOverlaps.isEmpty()) {
+        if (bookingRepository.existsOverlappingUserBooking(userId, start, end)) {
             throw new RuntimeException("You already have another booking in this time slot.");
         }
 
@@ -79,20 +140,177 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepository.save(booking);
     }
 
+    // ------------------------------------------------------------
+    // CREATE RECURRING SERIES (User request)
+    // ------------------------------------------------------------
+    @Override
+    public List<Booking> createSeries(Long userId, BookingSeriesRequest request) {
+
+        List<TimeWindow> occurrences = expandSeries(request);
+
+        return resourceLockManager.withLock(request.getResourceId(), () ->
+                transactionTemplate.execute(tx -> insertSeries(userId, request, occurrences)));
+    }
+
+    private List<Booking> insertSeries(Long userId, BookingSeriesRequest request, List<TimeWindow> occurrences) {
+
+        Resource resource = resourceRepository.findByIdForUpdate(request.getResourceId())
+                .orElseThrow(() -> new RuntimeException("Resource not found"));
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        LocalDateTime from = occurrences.get(0).getStart();
+        LocalDateTime to = occurrences.get(occurrences.size() - 1).getEnd();
+
+        // Whole series validated against one busy list per side (read under the row lock), merged in memory
+        List<TimeWindow> resourceConflicts = findConflicts(occurrences,
+                bookingRepository.findApprovedIntervals(List.of(resource.getId()), from, to));
+        if (!resourceConflicts.isEmpty()) {
+            throw new RuntimeException("These occurrences are already booked for the selected resource: "
+                    + describe(resourceConflicts));
+        }
+
+        List<TimeWindow> userConflicts =
+                findConflicts(occurrences, bookingRepository.findApprovedUserIntervals(userId, from, to));
+        if (!userConflicts.isEmpty()) {
+            throw new RuntimeException("You already have other bookings at: " + describe(userConflicts));
+        }
+
+        List<Booking> bookings = new ArrayList<>(occurrences.size());
+        for (TimeWindow occurrence : occurrences) {
+            Booking booking = new Booking();
+            booking.setUser(user);
+            booking.setResource(resource);
+            booking.setStartTime(occurrence.getStart());
+            booking.setEndTime(occurrence.getEnd());
+            booking.setPurpose(request.getPurpose());
+            booking.setStatus(BookingStatus.PENDING);
+            bookings.add(booking);
+        }
+
+        return bookingRepository.saveAll(bookings);
+    }
+
+    private List<TimeWindow> expandSeries(BookingSeriesRequest request) {
+
+        LocalDateTime start = request.getStartTime();
+        LocalDateTime end = request.getEndTime();
+
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new RuntimeException("Start time must be before end time");
+        }
+        bookingDurationLimit.check(start, end);
+        if (request.getOccurrences() == null && request.getUntil() == null) {
+            throw new RuntimeException("Either occurrences or until is required");
+        }
+        if (request.getInterval() < 1) {
+            throw new RuntimeException("Interval must be at least 1");
+        }
+
+        Duration step = request.getFrequency() == BookingSeriesRequest.Frequency.DAILY
+                ? Duration.ofDays(request.getInterval())
+                : Duration.ofDays(7L * request.getInterval());
+        if (Duration.between(start, end).compareTo(step) > 0) {
+            throw new RuntimeException("Occurrences of a series cannot overlap each other");
+        }
+
+        int limit = request.getOccurrences() != null
+                ? Math.min(request.getOccurrences(), MAX_SERIES_OCCURRENCES + 1)
+                : MAX_SERIES_OCCURRENCES + 1;
+
+        List<TimeWindow> occurrences = new ArrayList<>();
+        for (int i = 0; i < limit; i++) {
+            LocalDateTime s = request.getFrequency() == BookingSeriesRequest.Frequency.DAILY
+                    ? start.plusDays((long) i * request.getInterval())
+                    : start.plusWeeks((long) i * request.getInterval());
+            if (request.getUntil() != null && s.toLocalDate().isAfter(request.getUntil())) break;
+            occurrences.add(new TimeWindow(s, s.plus(Duration.between(start, end))));
+        }
+
+        if (occurrences.isEmpty()) {
+            throw new RuntimeException("The series has no occurrences");
+        }
+        if (occurrences.size() > MAX_SERIES_OCCURRENCES) {
+            throw new RuntimeException("A series can have at most " + MAX_SERIES_OCCURRENCES + " occurrences");
+        }
+        return occurrences;
+    }
+
+    /**
+     * Sweep: occurrences are sorted and disjoint, busy is sorted by start (and may overlap itself).
+     * Busy intervals that started before an occurrence ends stay "active" until they end;
+     * any active interval still ending after the occurrence starts is a conflict.
+     */
+    private List<TimeWindow> findConflicts(List<TimeWindow> occurrences, List<BookingInterval> busy) {
+        List<TimeWindow> conflicts = new ArrayList<>();
+        PriorityQueue<BookingInterval> active = new PriorityQueue<>(Comparator.comparing(BookingInterval::endTime));
+
+        int next = 0;
+        for (TimeWindow occurrence : occurrences) {
+            while (next < busy.size() && busy.get(next).startTime().isBefore(occurrence.getEnd())) {
+                active.add(busy.get(next++));
+            }
+            while (!active.isEmpty() && !active.peek().endTime().isAfter(occurrence.getStart())) {
+                active.poll();
+            }
+            if (!active.isEmpty()) {
+                conflicts.add(occurrence);
+            }
+        }
+        return conflicts;
+    }
+
+    private String describe(List<TimeWindow> windows) {
+        return windows.stream()
+                .map(w -> w.getStart() + " - " + w.getEnd())
+                .collect(Collectors.joining(", "));
+    }
+
     // ------------------------------------------------------------
     // GET MY BOOKINGS
     // ------------------------------------------------------------
     @Override
-    public List<Booking> getMyBookings(Long userId) {
-        return bookingRepository.findByUserId(userId);
+    public List<BookingResponse> getMyBookings(Long userId) {
+        return bookingRepository.findResponsesByUserId(userId);
     }
 
     // ------------------------------------------------------------
-    // GET ALL BOOKINGS (Admin)
+    // LIST BOOKINGS (Admin) - keyset paginated, newest first
     // ------------------------------------------------------------
     @Override
-    public List<Booking> getAllBookings() {
-        return bookingRepository.findAll();
+    public CursorPage<BookingResponse> getBookings(BookingStatus status,
+                                                  Long resourceId,
+                                                  Long userId,
+                                                  LocalDateTime from,
+                                                  LocalDateTime to,
+                                                  Long cursor,
+                                                  Integer limit) {
+
+        int pageLimit = (limit == null || limit <= 0) ? DEFAULT_PAGE_LIMIT : Math.min(limit, MAX_PAGE_LIMIT);
+
+        List<Specification<Booking>> specs = List.of(
+                BookingSpecifications.hasStatus(status),
+                BookingSpecifications.forResource(resourceId),
+                BookingSpecifications.forUser(userId),
+                BookingSpecifications.endsAfter(from),
+                BookingSpecifications.startsBefore(to),
+                BookingSpecifications.idBefore(cursor)
+        );
+
+        Specification<Booking> finalSpec = Specification.where(null);
+        for (Specification<Booking> spec : specs) {
+            finalSpec = finalSpec.and(spec);
+        }
+
+        // fetch one extra row to learn whether another page exists, no COUNT(*)
+        List<BookingResponse> rows = bookingRepository.findResponses(finalSpec, pageLimit + 1);
+
+        boolean hasNext = rows.size() > pageLimit;
+        List<BookingResponse> content = hasNext ? rows.subList(0, pageLimit) : rows;
+        Long nextCursor = hasNext ? content.get(content.size() - 1).getId() : null;
+
+        return new CursorPage<>(content, nextCursor, hasNext);
     }
 
     // ------------------------------------------------------------
@@ -100,25 +318,265 @@ public class BookingServiceImpl implements BookingService {
     // ------------------------------------------------------------
     @Override
     public Booking approveBooking(Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Long resourceId = bookingRepository.findResourceIdById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
-        // re-check overlap before approval
-        List<Booking> overlaps = bookingRepository.findOverlappingBookings(
-                booking.getResource(),
-                booking.getStartTime(),
-                booking.getEndTime()
-        );
+        return resourceLockManager.withLock(resourceId, () -> {
+            Booking approved = transactionTemplate.execute(tx -> {
+                lockResourceRow(resourceId);
+
+                Booking current = bookingRepository.findById(bookingId)
+                        .orElseThrow(() -> new RuntimeException("Booking not found"));
+
+                // re-check overlap before approval (DB is the final authority here)
+                boolean overlaps = bookingRepository.existsOverlappingBooking(
+                        resourceId,
+                        current.getStartTime(),
+                        current.getEndTime(),
+                        bookingDurationLimit.longest()
+                );
+
+                if (overlaps) {
+                    throw new RuntimeException("Cannot approve. Slot is already booked.");
+                }
+
+                current.setStatus(BookingStatus.APPROVED);
+                Booking saved = bookingRepository.save(current);
+                utilisationService.addApproved(List.of(BookingInterval.of(saved)));
+
+                // ⭐ Queue email notification (sent by EmailOutboxDispatcher after commit)
+                queueApprovedEmail(saved);
+
+                // Competing requests for this slot can never be approved now
+                rejectPendingOverlapping(List.of(resourceId), List.of(saved));
+
+                return saved;
+            });
+            bookingIntervalIndex.add(approved);
+            publishChanges(List.of(approved), true);
+            return approved;
+        });
+    }
+
+    // ------------------------------------------------------------
+    // REJECT BOOKING (Admin)
+    // ------------------------------------------------------------
+    @Override
+    public Booking rejectBooking(Long bookingId) {
+        Long resourceId = bookingRepository.findResourceIdById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+
+        // Same locks as approveBooking: the resource row serialises every status change of this
+        // resource's bookings across nodes, so the status read below is the one we act on
+        return resourceLockManager.withLock(resourceId, () -> {
+            Booking saved = transactionTemplate.execute(tx -> {
+                lockResourceRow(resourceId);
+
+                Booking booking = bookingRepository.findById(bookingId)
+                        .orElseThrow(() -> new RuntimeException("Booking not found"));
+
+                if (booking.getStatus() == BookingStatus.APPROVED) {
+                    utilisationService.removeApproved(List.of(BookingInterval.of(booking)));
+                }
+                booking.setStatus(BookingStatus.REJECTED);
+                Booking rejected = bookingRepository.save(booking);
+
+                // ⭐ Queue rejection email
+                queueRejectedEmail(booking);
 
-        if (!overlaps.isEmpty()) {
-            throw new RuntimeException("Cannot approve. Slot is already booked.");
+                return rejected;
+            });
+
+            if (bookingIntervalIndex.remove(saved)) { // false unless it was approved
+                publishChanges(List.of(saved), false);
+            }
+            return saved;
+        });
+    }
+
+    // ------------------------------------------------------------
+    // BULK APPROVE (Admin)
+    // ------------------------------------------------------------
+    @Override
+    public BulkDecisionResponse approveBookings(List<Long> bookingIds) {
+        List<Long> ids = distinctIds(bookingIds);
+        List<Long> resourceIds = bookingRepository.findResourceIdsByIdIn(ids);
+        Map<Long, String> skipped = new LinkedHashMap<>();
+        List<Long> autoRejected = new ArrayList<>();
+
+        List<Booking> accepted = resourceLockManager.withLocks(resourceIds, () -> {
+            List<Booking> approved = transactionTemplate.execute(tx -> {
+                if (!resourceIds.isEmpty()) {
+                    resourceRepository.findAllByIdForUpdate(resourceIds);
+                }
+
+                List<Booking> candidates = loadForDecision(ids, skipped, BookingStatus.PENDING);
+                if (candidates.isEmpty()) return candidates;
+
+                // Everything already approved around these slots, in one query (DB is the authority here)
+                LocalDateTime from = candidates.stream().map(Booking::getStartTime).min(Comparator.naturalOrder()).get();
+                LocalDateTime to = candidates.stream().map(Booking::getEndTime).max(Comparator.naturalOrder()).get();
+                Map<Long, List<BookingInterval>> busy = new HashMap<>();
+                for (BookingInterval i : bookingRepository.findApprovedIntervals(resourceIds, from, to)) {
+                    busy.computeIfAbsent(i.resourceId(), k -> new ArrayList<>()).add(i);
+                }
+
+                // First requested wins when two candidates collide
+                candidates.sort(Comparator.comparing(Booking::getId));
+                List<Booking> winners = new ArrayList<>();
+                for (Booking b : candidates) {
+                    List<BookingInterval> taken = busy.computeIfAbsent(b.getResource().getId(), k -> new ArrayList<>());
+                    boolean clash = taken.stream().anyMatch(i -> i.overlaps(b.getStartTime(), b.getEndTime()));
+                    if (clash) {
+                        skipped.put(b.getId(), "Slot is already booked");
+                        continue;
+                    }
+                    taken.add(BookingInterval.of(b));
+                    winners.add(b);
+                }
+
+                if (!winners.isEmpty()) {
+                    bookingRepository.updateStatus(ids(winners), BookingStatus.APPROVED, LocalDateTime.now());
+                    utilisationService.addApproved(intervals(winners));
+                    winners.forEach(this::queueApprovedEmail);
+                    autoRejected.addAll(rejectPendingOverlapping(resourceIds, winners));
+                    // candidates that lost to another candidate were just rejected, not left alone
+                    autoRejected.forEach(skipped::remove);
+                }
+                return winners;
+            });
+            approved.forEach(bookingIntervalIndex::add);
+            publishChanges(approved, true);
+            return approved;
+        });
+
+        return new BulkDecisionResponse(ids(accepted), skipped, autoRejected);
+    }
+
+    // ------------------------------------------------------------
+    // BULK REJECT (Admin)
+    // ------------------------------------------------------------
+    @Override
+    public BulkDecisionResponse rejectBookings(List<Long> bookingIds) {
+        List<Long> ids = distinctIds(bookingIds);
+        List<Long> resourceIds = bookingRepository.findResourceIdsByIdIn(ids);
+        Map<Long, String> skipped = new LinkedHashMap<>();
+
+        List<Booking> rejected = resourceLockManager.withLocks(resourceIds, () -> {
+            List<Booking> targets = transactionTemplate.execute(tx -> {
+                // resource rows first (as in approveBookings), then read the statuses
+                if (!resourceIds.isEmpty()) {
+                    resourceRepository.findAllByIdForUpdate(resourceIds);
+                }
+
+                List<Booking> found = loadForDecision(ids, skipped, BookingStatus.PENDING, BookingStatus.APPROVED);
+                if (!found.isEmpty()) {
+                    utilisationService.removeApproved(intervals(found.stream()
+                            .filter(b -> b.getStatus() == BookingStatus.APPROVED)
+                            .toList()));
+                    bookingRepository.updateStatus(ids(found), BookingStatus.REJECTED, LocalDateTime.now());
+                    found.forEach(this::queueRejectedEmail);
+                }
+                return found;
+            });
+
+            // remove() is false for the ones that were pending; only the approved ones free a slot
+            publishChanges(targets.stream().filter(bookingIntervalIndex::remove).toList(), false);
+            return targets;
+        });
+
+        return new BulkDecisionResponse(ids(rejected), skipped, List.of());
+    }
+
+    /**
+     * Reject every PENDING request that overlaps one of the just-approved bookings on the
+     * same resource: one range query, one UPDATE, notifications queued in the same transaction.
+     * Must run inside the approving transaction (and under its resource locks).
+     * Returns the ids it rejected.
+     */
+    private List<Long> rejectPendingOverlapping(Collection<Long> resourceIds, List<Booking> approved) {
+        LocalDateTime from = approved.stream().map(Booking::getStartTime).min(Comparator.naturalOrder()).get();
+        LocalDateTime to = approved.stream().map(Booking::getEndTime).max(Comparator.naturalOrder()).get();
+
+        List<Booking> losers = bookingRepository.findPendingOverlapping(resourceIds, from, to)
+                .stream()
+                .filter(p -> approved.stream().anyMatch(a ->
+                        a.getResource().getId().equals(p.getResource().getId())
+                                && BookingInterval.of(a).overlaps(p.getStartTime(), p.getEndTime())))
+                .toList();
+
+        if (!losers.isEmpty()) {
+            bookingRepository.updateStatus(ids(losers), BookingStatus.REJECTED, LocalDateTime.now());
+            losers.forEach(this::queueRejectedEmail);
+        }
+        return ids(losers);
+    }
+
+    /**
+     * SELECT ... FOR UPDATE on the resource row, taken before reading any booking status the
+     * transaction then acts on (e.g. "was it approved?" before removing its minutes).
+     */
+    private void lockResourceRow(Long resourceId) {
+        resourceRepository.findByIdForUpdate(resourceId)
+                .orElseThrow(() -> new RuntimeException("Resource not found"));
+    }
+
+    private List<Long> distinctIds(List<Long> bookingIds) {
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            throw new RuntimeException("ids are required");
         }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(bookingIds));
+        if (ids.size() > MAX_BULK_DECISIONS) {
+            throw new RuntimeException("At most " + MAX_BULK_DECISIONS + " bookings per request");
+        }
+        return ids;
+    }
+
+    /**
+     * One query for all ids; anything missing or in the wrong state is recorded in skipped.
+     */
+    private List<Booking> loadForDecision(List<Long> ids, Map<Long, String> skipped, BookingStatus... allowed) {
+        Map<Long, Booking> found = new HashMap<>();
+        for (Booking b : bookingRepository.findAllWithDetailsByIdIn(ids)) {
+            found.put(b.getId(), b);
+        }
+
+        Set<BookingStatus> allowedStatuses = Set.of(allowed);
+        List<Booking> result = new ArrayList<>();
+        for (Long id : ids) {
+            Booking b = found.get(id);
+            if (b == null) {
+                skipped.put(id, "Booking not found");
+            } else if (!allowedStatuses.contains(b.getStatus())) {
+                skipped.put(id, "Booking is " + b.getStatus());
+            } else {
+                result.add(b);
+            }
+        }
+        return result;
+    }
 
-        booking.setStatus(BookingStatus.APPROVED);
-        Booking saved = bookingRepository.save(booking);
+    private List<Long> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).toList();
+    }
+
+    private List<BookingInterval> intervals(List<Booking> bookings) {
+        return bookings.stream().map(BookingInterval::of).toList();
+    }
 
-        // ⭐ Send email notification
-        emailService.sendEmail(
+    /**
+     * Push occupancy deltas to availability stream subscribers. Call after commit.
+     */
+    private void publishChanges(List<Booking> bookings, boolean booked) {
+        if (bookings.isEmpty()) return;
+        availabilityHub.publish(bookings.stream()
+                .map(b -> new AvailabilityChange(
+                        b.getResource().getId(), b.getId(), b.getStartTime(), b.getEndTime(), booked))
+                .toList());
+    }
+
+    private void queueApprovedEmail(Booking booking) {
+        emailOutboxService.enqueue(
                 booking.getUser().getEmail(),
                 "Your Booking Has Been Approved",
                 "Hello " + booking.getUser().getName() +
@@ -127,23 +585,10 @@ public class BookingServiceImpl implements BookingService {
                         " to " + booking.getEndTime() +
                         " has been approved.\n\nThank you!"
         );
-
-        return saved;
     }
 
-    // ------------------------------------------------------------
-    // REJECT BOOKING (Admin)
-    // ------------------------------------------------------------
-    @Override
-    public Booking rejectBooking(Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found"));
-
-        booking.setStatus(BookingStatus.REJECTED);
-        Booking saved = bookingRepository.save(booking);
-
-        // ⭐ Send rejection email
-        emailService.sendEmail(
+    private void queueRejectedEmail(Booking booking) {
+        emailOutboxService.enqueue(
                 booking.getUser().getEmail(),
                 "Your Booking Request Was Rejected",
                 "Hello " + booking.getUser().getName() +
@@ -152,8 +597,6 @@ public class BookingServiceImpl implements BookingService {
                         " to " + booking.getEndTime() +
                         " has been rejected.\n\nPlease choose another time slot."
         );
-
-        return saved;
     }
 
     // ------------------------------------------------------------
@@ -161,27 +604,129 @@ public class BookingServiceImpl implements BookingService {
     // ------------------------------------------------------------
     @Override
     public void cancelBooking(Long bookingId, Long userId, boolean isAdmin) {
-
-        Booking booking = bookingRepository.findById(bookingId)
+        Long resourceId = bookingRepository.findResourceIdById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
-        // Only admin OR the user who created the booking can cancel
-        if (!isAdmin && !booking.getUser().getId().equals(userId)) {
-            throw new RuntimeException("You cannot cancel someone else's booking.");
+        resourceLockManager.withLock(resourceId, () -> {
+            Booking booking = transactionTemplate.execute(tx -> {
+                // a concurrent reject or cancel on another node waits here, then sees our status
+                lockResourceRow(resourceId);
+
+                Booking current = bookingRepository.findById(bookingId)
+                        .orElseThrow(() -> new RuntimeException("Booking not found"));
+
+                // Only admin OR the user who created the booking can cancel
+                if (!isAdmin && !current.getUser().getId().equals(userId)) {
+                    throw new RuntimeException("You cannot cancel someone else's booking.");
+                }
+
+                if (current.getStatus() == BookingStatus.APPROVED) {
+                    utilisationService.removeApproved(List.of(BookingInterval.of(current)));
+                }
+                current.setStatus(BookingStatus.CANCELLED);
+                return bookingRepository.save(current);
+            });
+
+            if (bookingIntervalIndex.remove(booking)) { // false unless it was approved
+                publishChanges(List.of(booking), false);
+            }
+            return booking;
+        });
+    }
+
+    @Override
+    public boolean isAvailable(Long resourceId, LocalDateTime start, LocalDateTime end) {
+
+        if (!resourceRepository.existsById(resourceId)) {
+            throw new RuntimeException("Resource not found");
         }
 
-        booking.setStatus(BookingStatus.CANCELLED);
-        bookingRepository.save(booking);
+        return !bookingIntervalIndex.hasOverlap(resourceId, start, end); // available if no overlaps
     }
 
+    // ------------------------------------------------------------
+    // BATCH AVAILABILITY (N resources x M windows)
+    // ------------------------------------------------------------
     @Override
-    public boolean isAvailable(Long resourceId, LocalDateTime start, LocalDateTime end) {
+    public BatchAvailabilityResponse checkAvailability(List<Long> resourceIds, List<TimeWindow> windows) {
 
-        Resource resource = resourceRepository.findById(resourceId)
-                .orElseThrow(() -> new RuntimeException("Resource not found"));
+        if (resourceIds == null || resourceIds.isEmpty() || windows == null || windows.isEmpty()) {
+            throw new RuntimeException("resourceIds and windows are required");
+        }
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(resourceIds)); // de-duplicate, keep order
+        if (ids.size() > MAX_BATCH_RESOURCES || windows.size() > MAX_BATCH_WINDOWS) {
+            throw new RuntimeException("At most " + MAX_BATCH_RESOURCES + " resources and "
+                    + MAX_BATCH_WINDOWS + " windows per request");
+        }
+
+        for (TimeWindow w : windows) {
+            if (w.getStart() == null || w.getEnd() == null || w.getStart().isAfter(w.getEnd())) {
+                throw new RuntimeException("Each window needs a start before its end");
+            }
+        }
+
+        // Single set-based query; overlaps come from the in-memory index
+        Set<Long> existing = new HashSet<>(resourceRepository.findExistingIds(ids));
+
+        boolean[][] available = new boolean[ids.size()][windows.size()];
+        List<Long> unknown = new ArrayList<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            Long resourceId = ids.get(i);
+            if (!existing.contains(resourceId)) {
+                unknown.add(resourceId);
+                continue;
+            }
+            for (int j = 0; j < windows.size(); j++) {
+                TimeWindow w = windows.get(j);
+                available[i][j] = !bookingIntervalIndex.hasOverlap(resourceId, w.getStart(), w.getEnd());
+            }
+        }
+
+        return new BatchAvailabilityResponse(ids, windows, available, unknown);
+    }
 
-        List<Booking> overlaps = bookingRepository.findOverlappingBookings(resource, start, end);
+    // ------------------------------------------------------------
+    // FREE SLOTS (sweep over approved bookings)
+    // ------------------------------------------------------------
+    @Override
+    public List<TimeWindow> findFreeSlots(Long resourceId, LocalDateTime from, LocalDateTime to, Duration minDuration) {
 
-        return overlaps.isEmpty(); // available if no overlaps
+        if (from.isAfter(to)) {
+            throw new RuntimeException("Start time cannot be after end time");
+        }
+        if (Duration.between(from, to).compareTo(MAX_FREE_SLOT_RANGE) > 0) {
+            throw new RuntimeException("Date range is too large (max " + MAX_FREE_SLOT_RANGE.toDays() + " days)");
+        }
+        if (!resourceRepository.existsById(resourceId)) {
+            throw new RuntimeException("Resource not found");
+        }
+
+        // Already sorted by start time
+        List<BookingInterval> booked = bookingIntervalIndex.findOverlapping(resourceId, from, to);
+
+        List<TimeWindow> gaps = new ArrayList<>();
+        LocalDateTime cursor = from; // everything before cursor is known to be busy or already reported
+
+        for (BookingInterval b : booked) {
+            if (b.startTime().isAfter(cursor)) {
+                addIfLongEnough(gaps, cursor, b.startTime(), minDuration);
+            }
+            if (b.endTime().isAfter(cursor)) {
+                cursor = b.endTime();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            addIfLongEnough(gaps, cursor, to, minDuration);
+        }
+
+        return gaps;
+    }
+
+    private void addIfLongEnough(List<TimeWindow> gaps, LocalDateTime start, LocalDateTime end, Duration minDuration) {
+        if (Duration.between(start, end).compareTo(minDuration) >= 0) {
+            gaps.add(new TimeWindow(start, end));
+        }
     }
 }
@@ -0,0 +1,187 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.model.BookingStatus;
+import com.edubooking.repository.BookingRepository;
+import com.edubooking.repository.projection.CalendarEvent;
+import com.edubooking.repository.projection.FeedVersion;
+import com.edubooking.service.CalendarFeedService;
+import com.edubooking.service.ICalendarWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * iCalendar feeds of bookings.
+ *
+ * Events are streamed from a server-side cursor straight into the response, so a feed costs
+ * one row of memory regardless of its size. The cursor needs an open connection, hence the
+ * read-only transaction around each write.
+ *
+ * "Changes since" reads use updatedAt. Clients pass back the X-Sync-Token they got (the
+ * latest updatedAt seen); it is widened by SYNC_OVERLAP because updatedAt is taken before
+ * commit, so a slow transaction can commit a timestamp older than a token already handed out.
+ * A booking also counts as changed when its resource was (name and location come from there).
+ * Repeated events are harmless: clients key them by UID.
+ *
+ * The feed secret is required: every node must sign feed URLs with the same key, and a random
+ * per-node key would make a URL work or 403 depending on the node that answers.
+ */
+@Service
+public class CalendarFeedServiceImpl implements CalendarFeedService {
+
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(60);
+
+    // Full feeds keep a month of history for context; everything later is included
+    private static final Duration HISTORY = Duration.ofDays(30);
+
+    private static final List<BookingStatus> USER_FEED_STATUSES = List.of(BookingStatus.PENDING, BookingStatus.APPROVED);
+    private static final List<BookingStatus> RESOURCE_FEED_STATUSES = List.of(BookingStatus.APPROVED);
+
+    // Flush every so many events so the client starts receiving while the cursor is read
+    private static final int FLUSH_EVERY = 200;
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SecretKeySpec feedKey;
+
+    public CalendarFeedServiceImpl(
+            BookingRepository bookingRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${edubooking.calendar.feed-secret:}") String feedSecret
+    ) {
+        this.bookingRepository = bookingRepository;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        if (feedSecret == null || feedSecret.isBlank()) {
+            throw new IllegalStateException(
+                    "edubooking.calendar.feed-secret is not set (CALENDAR_FEED_SECRET); all nodes must share it");
+        }
+        this.feedKey = new SecretKeySpec(feedSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    // ------------------------------------------------------------
+    // FEED TOKENS (HMAC of the user id, nothing stored)
+    // ------------------------------------------------------------
+    @Override
+    public String feedToken(Long userId) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(feedKey);
+            byte[] digest = mac.doFinal(("user:" + userId).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    @Override
+    public boolean isValidFeedToken(Long userId, String token) {
+        if (token == null || token.isEmpty()) return false;
+        return MessageDigest.isEqual(
+                feedToken(userId).getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    // ------------------------------------------------------------
+    // VERSIONS (ETag / sync token)
+    // ------------------------------------------------------------
+    @Override
+    public FeedVersion getUserFeedVersion(Long userId) {
+        return bookingRepository.findUserFeedVersion(userId);
+    }
+
+    @Override
+    public FeedVersion getResourceFeedVersion(Long resourceId) {
+        return bookingRepository.findResourceFeedVersion(resourceId);
+    }
+
+    // ------------------------------------------------------------
+    // FEEDS
+    // ------------------------------------------------------------
+    @Override
+    public void writeUserFeed(Long userId, LocalDateTime since, OutputStream out) throws IOException {
+        write(out, "My bookings", false, since == null
+                ? () -> bookingRepository.streamUserEvents(userId, USER_FEED_STATUSES, LocalDateTime.now().minus(HISTORY))
+                : () -> bookingRepository.streamUserChanges(userId, since.minus(SYNC_OVERLAP)));
+    }
+
+    @Override
+    public void writeResourceFeed(Long resourceId, LocalDateTime since, OutputStream out) throws IOException {
+        write(out, "Resource " + resourceId + " bookings", true, since == null
+                ? () -> bookingRepository.streamResourceEvents(resourceId, RESOURCE_FEED_STATUSES, LocalDateTime.now().minus(HISTORY))
+                : () -> bookingRepository.streamResourceChanges(resourceId, since.minus(SYNC_OVERLAP)));
+    }
+
+    private void write(OutputStream out, String calendarName, boolean anonymous,
+                       Supplier<Stream<CalendarEvent>> events) throws IOException {
+        ICalendarWriter ics = new ICalendarWriter(out);
+        ics.beginCalendar(calendarName);
+
+        try {
+            readOnlyTransaction.executeWithoutResult(tx -> {
+                try (Stream<CalendarEvent> stream = events.get()) {
+                    int written = 0;
+                    Iterator<CalendarEvent> it = stream.iterator();
+                    while (it.hasNext()) {
+                        writeEvent(ics, it.next(), anonymous);
+                        if (++written % FLUSH_EVERY == 0) ics.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // client went away
+        }
+
+        ics.endCalendar();
+    }
+
+    private static void writeEvent(ICalendarWriter ics, CalendarEvent event, boolean anonymous) throws IOException {
+        // the public feed only ever shows approved bookings; any other change there is a removal
+        boolean cancelled = anonymous
+                ? event.status() != BookingStatus.APPROVED
+                : event.status() == BookingStatus.CANCELLED || event.status() == BookingStatus.REJECTED;
+        LocalDateTime stamp = event.updatedAt() != null ? event.updatedAt() : event.startTime();
+
+        ics.line("BEGIN:VEVENT");
+        ics.line("UID:booking-" + event.bookingId() + "@edubooking");
+        ics.time("DTSTAMP", stamp);
+        ics.time("LAST-MODIFIED", event.updatedAt());
+        ics.time("DTSTART", event.startTime());
+        ics.time("DTEND", event.endTime());
+        ics.line("STATUS:" + (cancelled ? "CANCELLED"
+                : event.status() == BookingStatus.PENDING ? "TENTATIVE" : "CONFIRMED"));
+
+        if (anonymous) {
+            ics.text("SUMMARY", "Booked");
+        } else {
+            ics.text("SUMMARY", event.status() == BookingStatus.PENDING
+                    ? event.resourceName() + " (pending)"
+                    : event.resourceName());
+            ics.text("DESCRIPTION", event.purpose());
+        }
+        ics.text("LOCATION", event.location());
+        ics.line("END:VEVENT");
+    }
+}
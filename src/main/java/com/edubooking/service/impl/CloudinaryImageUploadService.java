@@ -0,0 +1,120 @@
+package com.edubooking.service.impl;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.edubooking.service.ImageUploadService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uploads go from disk to Cloudinary without passing through the heap:
+ * the multipart part (already spooled to a temp file by the servlet container)
+ * is moved, not copied, to a file we own and handed to the client as a File,
+ * which streams it in small buffered chunks. The SDK's plain upload takes no
+ * InputStream, so a File is the cheapest thing to hand it.
+ *
+ * A semaphore caps how many uploads run at once; callers over the cap wait
+ * briefly and are then turned away instead of piling up.
+ */
+@Service
+@ConditionalOnProperty(name = "edubooking.images.provider", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryImageUploadService implements ImageUploadService {
+
+    // Admin API limit for delete_resources
+    private static final int MAX_IDS_PER_DELETE = 100;
+
+    private final Cloudinary cloudinary;
+    private final Semaphore uploadPermits;
+    private final long uploadWaitSeconds;
+
+    public CloudinaryImageUploadService(Cloudinary cloudinary,
+                                        @Value("${edubooking.images.max-concurrent-uploads:4}") int maxConcurrentUploads,
+                                        @Value("${edubooking.images.upload-wait-seconds:30}") long uploadWaitSeconds) {
+        this.cloudinary = cloudinary;
+        this.uploadPermits = new Semaphore(maxConcurrentUploads, true);
+        this.uploadWaitSeconds = uploadWaitSeconds;
+    }
+
+    @Override
+    public Map<String, String> uploadImage(MultipartFile file) throws IOException {
+
+        Path tempFile = Files.createTempFile("edubooking-upload-", ".img");
+        try {
+            // transferTo(File) lets the container rename its spooled part into place;
+            // transferTo(Path) would stream a second full copy through a buffer
+            file.transferTo(tempFile.toFile());
+            return uploadImage(tempFile);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public Map<String, String> uploadImage(Path file) throws IOException {
+
+        acquireUploadPermit();
+        try {
+            Map uploadResult = cloudinary.uploader().upload(
+                    file.toFile(),
+                    ObjectUtils.asMap(
+                            "folder", "eduBooking/resources"
+                    )
+            );
+
+            return Map.of(
+                    "url", uploadResult.get("secure_url").toString(),
+                    "publicId", uploadResult.get("public_id").toString()
+            );
+        } finally {
+            uploadPermits.release();
+        }
+    }
+
+    @Override
+    public void deleteImage(String publicId) throws IOException {
+        cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
+    }
+
+    /**
+     * One Admin API call per 100 ids; Cloudinary reports missing ids as "not_found",
+     * which is fine for us.
+     */
+    @Override
+    public void deleteImages(List<String> publicIds) throws IOException {
+        for (int from = 0; from < publicIds.size(); from += MAX_IDS_PER_DELETE) {
+            List<String> chunk = publicIds.subList(from, Math.min(from + MAX_IDS_PER_DELETE, publicIds.size()));
+            try {
+                cloudinary.api().deleteResources(chunk, ObjectUtils.emptyMap());
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Cloudinary bulk delete failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void acquireUploadPermit() {
+        try {
+            if (!uploadPermits.tryAcquire(uploadWaitSeconds, TimeUnit.SECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many image uploads in progress, please try again shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Interrupted while waiting to upload image");
+        }
+    }
+}
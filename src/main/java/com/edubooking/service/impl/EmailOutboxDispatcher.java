@@ -0,0 +1,114 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.model.OutboxEmail;
+import com.edubooking.model.OutboxStatus;
+import com.edubooking.repository.OutboxEmailRepository;
+import com.edubooking.service.EmailService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Drains the email outbox in batches (claim, lease and backoff: see LeasedQueueWorker).
+ *
+ * Each batch is sent in parallel on virtual threads (SMTP calls block for up to the
+ * configured mail timeouts); every email succeeds or fails on its own.
+ */
+@Component
+public class EmailOutboxDispatcher extends LeasedQueueWorker<EmailOutboxDispatcher.ClaimedEmail> {
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final EmailService emailService;
+
+    public EmailOutboxDispatcher(
+            OutboxEmailRepository outboxEmailRepository,
+            EmailService emailService,
+            TransactionTemplate transactionTemplate,
+            @Value("${edubooking.outbox.batch-size:20}") int batchSize,
+            @Value("${edubooking.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${edubooking.outbox.lease-seconds:120}") long leaseSeconds,
+            @Value("${edubooking.outbox.backoff-base-seconds:30}") long baseBackoffSeconds,
+            @Value("${edubooking.outbox.backoff-max-seconds:3600}") long maxBackoffSeconds
+    ) {
+        super("outbox.send", transactionTemplate, batchSize, maxAttempts,
+                leaseSeconds, baseBackoffSeconds, maxBackoffSeconds);
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.emailService = emailService;
+    }
+
+    @Scheduled(fixedDelayString = "${edubooking.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        drainQueue();
+    }
+
+    @Override
+    protected List<ClaimedEmail> findDue(LocalDateTime now, Pageable page) {
+        return outboxEmailRepository.findDueForUpdate(now, page)
+                .stream()
+                .map(ClaimedEmail::of)
+                .toList();
+    }
+
+    @Override
+    protected void claim(List<Long> ids, LocalDateTime leaseUntil) {
+        outboxEmailRepository.claim(ids, leaseUntil);
+    }
+
+    // ------------------------------------------------------------
+    // 2. Send in parallel, then record outcomes
+    // ------------------------------------------------------------
+    @Override
+    protected void process(List<ClaimedEmail> batch) {
+        List<Future<?>> results = new ArrayList<>(batch.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (ClaimedEmail email : batch) {
+                results.add(executor.submit(() ->
+                        emailService.sendEmail(email.recipient(), email.subject(), email.body())));
+            }
+        } // close() waits for every send
+
+        List<Long> sent = new ArrayList<>();
+        List<Failure<ClaimedEmail>> failed = new ArrayList<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                results.get(i).get();
+                sent.add(batch.get(i).id());
+            } catch (Exception e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                failed.add(new Failure<>(batch.get(i), String.valueOf(cause.getMessage())));
+            }
+        }
+
+        recordOutcomes(sent, failed);
+    }
+
+    @Override
+    protected void markDone(List<Long> ids, LocalDateTime now) {
+        outboxEmailRepository.markSent(ids, now);
+    }
+
+    @Override
+    protected void markFailedAttempt(Long id, OutboxStatus status, LocalDateTime nextAttemptAt, String error) {
+        outboxEmailRepository.markFailedAttempt(id, status, nextAttemptAt, error);
+    }
+
+    record ClaimedEmail(Long id, String recipient, String subject, String body, int attempts)
+            implements LeasedQueueWorker.Claimed {
+
+        static ClaimedEmail of(OutboxEmail email) {
+            return new ClaimedEmail(email.getId(), email.getRecipient(), email.getSubject(), email.getBody(),
+                    email.getAttempts() + 1);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.model.OutboxEmail;
+import com.edubooking.model.OutboxStatus;
+import com.edubooking.repository.OutboxEmailRepository;
+import com.edubooking.service.EmailOutboxService;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    private final OutboxEmailRepository outboxEmailRepository;
+
+    public EmailOutboxServiceImpl(OutboxEmailRepository outboxEmailRepository) {
+        this.outboxEmailRepository = outboxEmailRepository;
+    }
+
+    @Override
+    public void enqueue(String to, String subject, String message) {
+        OutboxEmail email = new OutboxEmail();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setBody(message);
+        email.setStatus(OutboxStatus.PENDING);
+        email.setNextAttemptAt(LocalDateTime.now());
+        outboxEmailRepository.save(email);
+    }
+}
@@ -0,0 +1,28 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.model.ImageDeletion;
+import com.edubooking.model.OutboxStatus;
+import com.edubooking.repository.ImageDeletionRepository;
+import com.edubooking.service.ImageDeletionService;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+public class ImageDeletionServiceImpl implements ImageDeletionService {
+
+    private final ImageDeletionRepository imageDeletionRepository;
+
+    public ImageDeletionServiceImpl(ImageDeletionRepository imageDeletionRepository) {
+        this.imageDeletionRepository = imageDeletionRepository;
+    }
+
+    @Override
+    public void enqueue(String publicId) {
+        ImageDeletion deletion = new ImageDeletion();
+        deletion.setPublicId(publicId);
+        deletion.setStatus(OutboxStatus.PENDING);
+        deletion.setNextAttemptAt(LocalDateTime.now());
+        imageDeletionRepository.save(deletion);
+    }
+}
@@ -0,0 +1,94 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.model.ImageDeletion;
+import com.edubooking.model.OutboxStatus;
+import com.edubooking.repository.ImageDeletionRepository;
+import com.edubooking.service.ImageUploadService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drains the image deletion queue in batches (claim, lease and backoff: see LeasedQueueWorker).
+ *
+ * Each batch is removed from storage with a single bulk delete call (Cloudinary accepts up to
+ * 100 public ids per call), so a failed call puts the whole batch back; an id that no longer
+ * exists in storage counts as deleted.
+ */
+@Component
+public class ImageDeletionWorker extends LeasedQueueWorker<ImageDeletionWorker.ClaimedDeletion> {
+
+    private final ImageDeletionRepository imageDeletionRepository;
+    private final ImageUploadService imageUploadService;
+
+    public ImageDeletionWorker(
+            ImageDeletionRepository imageDeletionRepository,
+            ImageUploadService imageUploadService,
+            TransactionTemplate transactionTemplate,
+            @Value("${edubooking.images.deletion.batch-size:100}") int batchSize,
+            @Value("${edubooking.images.deletion.max-attempts:10}") int maxAttempts,
+            @Value("${edubooking.images.deletion.lease-seconds:120}") long leaseSeconds,
+            @Value("${edubooking.images.deletion.backoff-base-seconds:60}") long baseBackoffSeconds,
+            @Value("${edubooking.images.deletion.backoff-max-seconds:21600}") long maxBackoffSeconds
+    ) {
+        super("image.delete", transactionTemplate, batchSize, maxAttempts,
+                leaseSeconds, baseBackoffSeconds, maxBackoffSeconds);
+        this.imageDeletionRepository = imageDeletionRepository;
+        this.imageUploadService = imageUploadService;
+    }
+
+    @Scheduled(fixedDelayString = "${edubooking.images.deletion.poll-interval-ms:10000}")
+    public void drain() {
+        drainQueue();
+    }
+
+    @Override
+    protected List<ClaimedDeletion> findDue(LocalDateTime now, Pageable page) {
+        return imageDeletionRepository.findDueForUpdate(now, page)
+                .stream()
+                .map(ClaimedDeletion::of)
+                .toList();
+    }
+
+    @Override
+    protected void claim(List<Long> ids, LocalDateTime leaseUntil) {
+        imageDeletionRepository.claim(ids, leaseUntil);
+    }
+
+    // ------------------------------------------------------------
+    // 2. One bulk delete call, then record the outcome
+    // ------------------------------------------------------------
+    @Override
+    protected void process(List<ClaimedDeletion> batch) {
+        try {
+            imageUploadService.deleteImages(batch.stream().map(ClaimedDeletion::publicId).distinct().toList());
+        } catch (Exception e) {
+            String error = String.valueOf(e.getMessage());
+            recordOutcomes(List.of(), batch.stream().map(d -> new Failure<>(d, error)).toList());
+            return;
+        }
+        recordOutcomes(batch.stream().map(ClaimedDeletion::id).toList(), List.of());
+    }
+
+    @Override
+    protected void markDone(List<Long> ids, LocalDateTime now) {
+        imageDeletionRepository.markDeleted(ids, now);
+    }
+
+    @Override
+    protected void markFailedAttempt(Long id, OutboxStatus status, LocalDateTime nextAttemptAt, String error) {
+        imageDeletionRepository.markFailedAttempt(id, status, nextAttemptAt, error);
+    }
+
+    record ClaimedDeletion(Long id, String publicId, int attempts) implements LeasedQueueWorker.Claimed {
+
+        static ClaimedDeletion of(ImageDeletion deletion) {
+            return new ClaimedDeletion(deletion.getId(), deletion.getPublicId(), deletion.getAttempts() + 1);
+        }
+    }
+}
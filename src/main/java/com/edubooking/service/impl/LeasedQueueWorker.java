@@ -0,0 +1,147 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.model.OutboxStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The loop shared by the background queues (email outbox, image deletions).
+ *
+ * A batch of due rows is claimed in a short transaction (SKIP LOCKED, then a lease that hides
+ * the rows from other nodes until it runs out), worked on outside any transaction, and the
+ * outcomes are written back. Failures are retried with exponential backoff until maxAttempts.
+ *
+ * Subclasses copy the due rows into detached records before the claim UPDATE: a managed entity
+ * touched afterwards would be flushed at commit with its old nextAttemptAt, erasing the lease.
+ */
+abstract class LeasedQueueWorker<T extends LeasedQueueWorker.Claimed> {
+
+    private static final Logger log = LoggerFactory.getLogger(LeasedQueueWorker.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    /**
+     * Detached copy of a claimed row; attempts already counts the one being made.
+     */
+    interface Claimed {
+        Long id();
+
+        int attempts();
+    }
+
+    /**
+     * A claimed item whose attempt failed, with the reason.
+     */
+    record Failure<T>(T item, String error) {
+    }
+
+    protected final TransactionTemplate transactionTemplate;
+
+    private final String name;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+
+    protected LeasedQueueWorker(String name,
+                                TransactionTemplate transactionTemplate,
+                                int batchSize,
+                                int maxAttempts,
+                                long leaseSeconds,
+                                long baseBackoffSeconds,
+                                long maxBackoffSeconds) {
+        this.name = name;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.baseBackoff = Duration.ofSeconds(baseBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+    }
+
+    /**
+     * Due rows locked FOR UPDATE SKIP LOCKED, as detached records.
+     */
+    protected abstract List<T> findDue(LocalDateTime now, Pageable page);
+
+    /**
+     * Bulk UPDATE: attempts + 1, nextAttemptAt = leaseUntil.
+     */
+    protected abstract void claim(List<Long> ids, LocalDateTime leaseUntil);
+
+    /**
+     * The work itself, outside any transaction; ends with {@link #recordOutcomes}.
+     */
+    protected abstract void process(List<T> batch);
+
+    protected abstract void markDone(List<Long> ids, LocalDateTime now);
+
+    protected abstract void markFailedAttempt(Long id, OutboxStatus status, LocalDateTime nextAttemptAt, String error);
+
+    /**
+     * Claim and process batches until fewer than a full batch is due.
+     */
+    protected final void drainQueue() {
+        List<T> batch;
+        do {
+            batch = claimBatch();
+            if (batch.isEmpty()) return;
+            process(batch);
+        } while (batch.size() == batchSize);
+    }
+
+    // ------------------------------------------------------------
+    // 1. Claim due rows (short transaction, SKIP LOCKED)
+    // ------------------------------------------------------------
+    private List<T> claimBatch() {
+        return transactionTemplate.execute(tx -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<T> due = findDue(now, PageRequest.of(0, batchSize));
+            if (due.isEmpty()) return due;
+
+            claim(due.stream().map(Claimed::id).toList(), now.plus(lease));
+            return due;
+        });
+    }
+
+    // ------------------------------------------------------------
+    // 3. Record outcomes (one transaction)
+    // ------------------------------------------------------------
+    protected final void recordOutcomes(List<Long> done, List<Failure<T>> failed) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (!done.isEmpty()) {
+                markDone(done, now);
+            }
+            for (Failure<T> failure : failed) {
+                T item = failure.item();
+                boolean giveUp = item.attempts() >= maxAttempts;
+                log.warn("{}.failed id={} attempt={} giveUp={} error={}",
+                        name, item.id(), item.attempts(), giveUp, failure.error());
+                markFailedAttempt(
+                        item.id(),
+                        giveUp ? OutboxStatus.FAILED : OutboxStatus.PENDING,
+                        giveUp ? now : now.plus(backoff(item.attempts())),
+                        truncate(failure.error())
+                );
+            }
+        });
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = baseBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
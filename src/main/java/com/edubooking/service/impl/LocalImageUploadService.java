@@ -0,0 +1,70 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.service.ImageUploadService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stand-in for tests and local development: images are written to a directory
+ * on disk and the "url" is a file: URI. Enable with edubooking.images.provider=local.
+ */
+@Service
+@ConditionalOnProperty(name = "edubooking.images.provider", havingValue = "local")
+public class LocalImageUploadService implements ImageUploadService {
+
+    private final Path directory;
+
+    public LocalImageUploadService(
+            @Value("${edubooking.images.local-dir:${java.io.tmpdir}/edubooking-images}") String directory) throws IOException {
+        this.directory = Files.createDirectories(Paths.get(directory));
+    }
+
+    @Override
+    public Map<String, String> uploadImage(MultipartFile file) throws IOException {
+        String publicId = UUID.randomUUID().toString();
+        Path target = directory.resolve(publicId);
+
+        // File overload: the container moves its spooled part instead of copying it
+        file.transferTo(target.toFile());
+
+        return Map.of(
+                "url", target.toUri().toString(),
+                "publicId", publicId
+        );
+    }
+
+    @Override
+    public Map<String, String> uploadImage(Path file) throws IOException {
+        String publicId = UUID.randomUUID().toString();
+        Path target = directory.resolve(publicId);
+
+        Files.copy(file, target);
+
+        return Map.of(
+                "url", target.toUri().toString(),
+                "publicId", publicId
+        );
+    }
+
+    @Override
+    public void deleteImage(String publicId) throws IOException {
+        Files.deleteIfExists(directory.resolve(publicId));
+    }
+
+    @Override
+    public void deleteImages(List<String> publicIds) throws IOException {
+        for (String publicId : publicIds) {
+            deleteImage(publicId);
+        }
+    }
+}
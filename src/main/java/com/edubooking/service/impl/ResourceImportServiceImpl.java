@@ -0,0 +1,372 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.dto.resource.ResourceImportResult;
+import com.edubooking.dto.resource.ResourceImportRow;
+import com.edubooking.model.Resource;
+import com.edubooking.repository.ResourceRepository;
+import com.edubooking.service.ImageDeletionService;
+import com.edubooking.service.ImageUploadService;
+import com.edubooking.service.ResourceCatalogCache;
+import com.edubooking.service.ResourceImportService;
+import com.edubooking.service.ResourceSearchIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Bulk resource import.
+ *
+ * The rows are read once up front for the image names they reference; only those archive
+ * entries are unpacked to a temp directory, and never more than maxExtractedSize in total, so
+ * a small zip of highly compressible entries cannot fill the disk. The NDJSON rows are then
+ * read one at a time and handled in batches of batchSize:
+ * 1. parse and validate each row,
+ * 2. upload the batch's images in parallel (at most uploadParallelism at once, and still
+ *    under the upload service's own bulkhead),
+ * 3. insert the batch in one transaction (pooled ids + hibernate.jdbc.batch_size turn it
+ *    into a few multi-row INSERTs),
+ * 4. write one progress line per row and flush.
+ *
+ * Memory stays bounded by one batch regardless of file size. If a batch fails to store,
+ * its freshly uploaded images are queued for deletion.
+ */
+@Service
+public class ResourceImportServiceImpl implements ResourceImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResourceImportServiceImpl.class);
+
+    private final ResourceRepository resourceRepository;
+    private final ImageUploadService imageUploadService;
+    private final ImageDeletionService imageDeletionService;
+    private final ResourceSearchIndex resourceSearchIndex;
+    private final ResourceCatalogCache resourceCatalogCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final int batchSize;
+    private final int maxRows;
+    private final Semaphore uploadPermits;
+    private final DataSize maxImageSize;
+    private final DataSize maxExtractedSize;
+
+    public ResourceImportServiceImpl(
+            ResourceRepository resourceRepository,
+            ImageUploadService imageUploadService,
+            ImageDeletionService imageDeletionService,
+            ResourceSearchIndex resourceSearchIndex,
+            ResourceCatalogCache resourceCatalogCache,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${edubooking.import.batch-size:50}") int batchSize,
+            @Value("${edubooking.import.max-rows:2000}") int maxRows,
+            @Value("${edubooking.import.upload-parallelism:3}") int uploadParallelism,
+            @Value("${edubooking.images.max-size:10MB}") DataSize maxImageSize,
+            @Value("${edubooking.import.max-extracted-size:${spring.servlet.multipart.max-request-size:210MB}}")
+            DataSize maxExtractedSize
+    ) {
+        this.resourceRepository = resourceRepository;
+        this.imageUploadService = imageUploadService;
+        this.imageDeletionService = imageDeletionService;
+        this.resourceSearchIndex = resourceSearchIndex;
+        this.resourceCatalogCache = resourceCatalogCache;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+        this.uploadPermits = new Semaphore(uploadParallelism);
+        this.maxImageSize = maxImageSize;
+        this.maxExtractedSize = maxExtractedSize;
+    }
+
+    @Override
+    public void importResources(MultipartFile rows, MultipartFile images, OutputStream progress) throws IOException {
+
+        Path workDir = Files.createTempDirectory("edubooking-import-");
+        try {
+            Archive archive = (images == null || images.isEmpty())
+                    ? Archive.EMPTY
+                    : unzip(images, referencedImages(rows), workDir);
+
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(rows.getInputStream(), StandardCharsets.UTF_8))) {
+
+                List<RawRow> batch = new ArrayList<>(batchSize);
+                int lineNo = 0;
+                int rowCount = 0;
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    lineNo++;
+                    if (line.isBlank()) continue;
+
+                    if (++rowCount > maxRows) {
+                        write(progress, ResourceImportResult.failed(lineNo,
+                                "Import is limited to " + maxRows + " rows; the rest was skipped"));
+                        break;
+                    }
+
+                    batch.add(new RawRow(lineNo, line));
+                    if (batch.size() == batchSize) {
+                        importBatch(batch, archive, progress);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    importBatch(batch, archive, progress);
+                }
+            }
+        } finally {
+            FileSystemUtils.deleteRecursively(workDir);
+        }
+    }
+
+
+    // ------------------------------------------------------------
+    // One batch: validate, upload in parallel, insert, report
+    // ------------------------------------------------------------
+    private void importBatch(List<RawRow> batch, Archive archive, OutputStream progress) throws IOException {
+        int n = batch.size();
+        ResourceImportResult[] results = new ResourceImportResult[n];
+        ResourceImportRow[] parsed = new ResourceImportRow[n];
+
+        // 1. parse + validate
+        for (int i = 0; i < n; i++) {
+            RawRow raw = batch.get(i);
+            ResourceImportRow row;
+            try {
+                row = objectMapper.readValue(raw.json(), ResourceImportRow.class);
+            } catch (JsonProcessingException e) {
+                results[i] = ResourceImportResult.failed(raw.lineNo(), "Invalid row: " + e.getOriginalMessage());
+                continue;
+            }
+
+            String problem = validate(row, archive);
+            if (problem != null) {
+                results[i] = ResourceImportResult.failed(raw.lineNo(), problem);
+            } else {
+                parsed[i] = row;
+            }
+        }
+
+        // 2. upload images in parallel
+        List<Future<Map<String, String>>> uploads = new ArrayList<>(n);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < n; i++) {
+                if (parsed[i] == null) {
+                    uploads.add(null);
+                    continue;
+                }
+                Path image = archive.files().get(parsed[i].getImage());
+                uploads.add(executor.submit(() -> {
+                    uploadPermits.acquire();
+                    try {
+                        return imageUploadService.uploadImage(image);
+                    } finally {
+                        uploadPermits.release();
+                    }
+                }));
+            }
+        } // close() waits for every upload
+
+        List<Resource> toSave = new ArrayList<>(n);
+        List<Integer> savedIndexes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (parsed[i] == null) continue;
+            try {
+                Map<String, String> upload = uploads.get(i).get();
+                toSave.add(ResourceServiceImpl.newResource(parsed[i], upload));
+                savedIndexes.add(i);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Import interrupted", e);
+            } catch (ExecutionException e) {
+                results[i] = ResourceImportResult.failed(batch.get(i).lineNo(),
+                        "Image upload failed: " + e.getCause().getMessage());
+            }
+        }
+
+        // 3. one transaction, batched INSERTs
+        if (!toSave.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    resourceCatalogCache.recordWrite();
+                    resourceRepository.saveAll(toSave);
+                });
+
+                for (int k = 0; k < toSave.size(); k++) {
+                    Resource saved = toSave.get(k);
+                    int i = savedIndexes.get(k);
+                    results[i] = ResourceImportResult.created(batch.get(i).lineNo(), saved.getId());
+                    resourceSearchIndex.put(saved);
+                    resourceCatalogCache.invalidate(saved.getId());
+                }
+            } catch (RuntimeException e) {
+                log.warn("resource.import.batch.failed rows={}", toSave.size(), e);
+                discardUploads(toSave);
+                for (int i : savedIndexes) {
+                    results[i] = ResourceImportResult.failed(batch.get(i).lineNo(),
+                            "Could not store row: " + e.getMessage());
+                }
+            }
+        }
+
+        // 4. report
+        for (ResourceImportResult result : results) {
+            write(progress, result);
+        }
+        progress.flush();
+    }
+
+    private String validate(ResourceImportRow row, Archive archive) throws IOException {
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "name is required";
+        }
+        if (row.getImage() == null || row.getImage().isBlank()) {
+            return "image is required";
+        }
+        Path image = archive.files().get(row.getImage());
+        if (image == null && archive.truncated()) {
+            return "image '" + row.getImage() + "' is not in the archive, or past its "
+                    + maxExtractedSize.toMegabytes() + " MB extraction limit";
+        }
+        if (image == null) {
+            return "image '" + row.getImage() + "' is not in the archive";
+        }
+        if (Files.size(image) > maxImageSize.toBytes()) {
+            return "image '" + row.getImage() + "' is larger than " + maxImageSize.toMegabytes() + " MB";
+        }
+        return null;
+    }
+
+    private void discardUploads(List<Resource> resources) {
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                    resources.forEach(r -> imageDeletionService.enqueue(r.getImagePublicId())));
+        } catch (RuntimeException e) {
+            log.warn("resource.import.cleanup.failed images={}", resources.size(), e);
+        }
+    }
+
+    private void write(OutputStream progress, ResourceImportResult result) throws IOException {
+        progress.write(objectMapper.writeValueAsBytes(result));
+        progress.write('\n');
+    }
+
+
+    // ------------------------------------------------------------
+    // Archive
+    // ------------------------------------------------------------
+
+    /**
+     * Image names referenced by the first maxRows rows; lines that are not valid JSON are
+     * left for importBatch to report.
+     */
+    private Set<String> referencedImages(MultipartFile rows) throws IOException {
+        Set<String> names = new HashSet<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(rows.getInputStream(), StandardCharsets.UTF_8))) {
+            int rowCount = 0;
+            String line;
+            while ((line = reader.readLine()) != null && rowCount < maxRows) {
+                if (line.isBlank()) continue;
+                rowCount++;
+                try {
+                    String image = objectMapper.readTree(line).path("image").asText("");
+                    if (!image.isBlank()) names.add(image);
+                } catch (JsonProcessingException e) {
+                    // reported per row later
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Unpacks the referenced entries into workDir, keyed by bare file name. Directories in the
+     * archive are ignored (which also rules out zip-slip paths). An entry is cut off one byte
+     * past the image size limit (validate() rejects it), and extraction stops once the total
+     * would pass maxExtractedSize; the entry that crossed it is dropped and the archive is
+     * marked truncated.
+     */
+    private Archive unzip(MultipartFile images, Set<String> wanted, Path workDir) throws IOException {
+        Map<String, Path> files = new HashMap<>();
+        long budget = maxExtractedSize.toBytes();
+
+        try (ZipInputStream zip = new ZipInputStream(images.getInputStream())) {
+            ZipEntry entry;
+            while (files.size() < wanted.size() && (entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) continue;
+
+                Path name = Paths.get(entry.getName()).getFileName();
+                if (name == null || !wanted.contains(name.toString()) || files.containsKey(name.toString())) continue;
+
+                Path target = workDir.resolve("f" + files.size());
+                long limit = Math.min(maxImageSize.toBytes() + 1, budget);
+                long written = copyBounded(zip, target, limit);
+
+                if (written == budget && zip.read() != -1) {
+                    Files.delete(target);
+                    log.warn("resource.import.archive.truncated extracted={} files={}", maxExtractedSize, files.size());
+                    return new Archive(files, true);
+                }
+                budget -= written;
+                files.put(name.toString(), target);
+            }
+        }
+        return new Archive(files, false);
+    }
+
+    // Returns the number of bytes written, at most limit
+    private static long copyBounded(InputStream in, Path target, long limit) throws IOException {
+        try (OutputStream out = Files.newOutputStream(target)) {
+            byte[] buffer = new byte[8192];
+            long remaining = limit;
+            int read;
+            while (remaining > 0 && (read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+            return limit - remaining;
+        }
+    }
+
+    private record RawRow(int lineNo, String json) {
+    }
+
+    /**
+     * Extracted images by archive file name; truncated when the extraction budget ran out.
+     */
+    private record Archive(Map<String, Path> files, boolean truncated) {
+        static final Archive EMPTY = new Archive(Map.of(), false);
+    }
+}
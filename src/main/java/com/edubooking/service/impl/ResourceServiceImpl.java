@@ -3,43 +3,72 @@ package com.edubooking.service.impl;
 import com.edubooking.dto.common.PaginatedResponse;
 import com.edubooking.dto.resource.CreateResourceRequest;
 import com.edubooking.dto.resource.ResourceResponse;
+import com.edubooking.dto.resource.ResourceSortKey;
 import com.edubooking.dto.resource.UpdateResourceRequest;
+import com.edubooking.dto.resource.ResourceQuery;
 import com.edubooking.model.Resource;
-import com.edubooking.model.ResourceType;
-import com.edubooking.model.ResourceStatus;
 
 import com.edubooking.repository.ResourceRepository;
 import com.edubooking.repository.spec.ResourceSpecifications;
 
+import com.edubooking.service.ImageDeletionService;
 import com.edubooking.service.ImageUploadService;
+import com.edubooking.service.ResourceCatalogCache;
+import com.edubooking.service.ResourceSearchIndex;
 import com.edubooking.service.ResourceService;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.unit.DataSize;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
 @Service
 public class ResourceServiceImpl implements ResourceService {
 
+    // Best search hits considered per query; a one-letter prefix can match most of the catalog
+    private static final int MAX_SEARCH_HITS = 1000;
+
     private final ResourceRepository resourceRepository;
     private final ImageUploadService imageUploadService;
+    private final ResourceSearchIndex resourceSearchIndex;
+    private final ResourceCatalogCache resourceCatalogCache;
+    private final ImageDeletionService imageDeletionService;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSize maxImageSize;
 
     public ResourceServiceImpl(ResourceRepository resourceRepository,
-                               ImageUploadService imageUploadService) {
+                               ImageUploadService imageUploadService,
+                               ResourceSearchIndex resourceSearchIndex,
+                               ResourceCatalogCache resourceCatalogCache,
+                               ImageDeletionService imageDeletionService,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${edubooking.images.max-size:10MB}") DataSize maxImageSize) {
         this.resourceRepository = resourceRepository;
         this.imageUploadService = imageUploadService;
+        this.resourceSearchIndex = resourceSearchIndex;
+        this.resourceCatalogCache = resourceCatalogCache;
+        this.imageDeletionService = imageDeletionService;
+        this.transactionTemplate = transactionTemplate;
+        this.maxImageSize = maxImageSize;
     }
 
 
@@ -52,24 +81,17 @@ public class ResourceServiceImpl implements ResourceService {
         if (image == null || image.isEmpty()) {
             throw new RuntimeException("Image is required");
         }
+        requireImageWithinLimit(image);
 
         // Upload image first
         Map<String, String> upload = imageUploadService.uploadImage(image);
 
-        Resource resource = new Resource();
-        resource.setName(dto.getName());
-        resource.setDescription(dto.getDescription());
-        resource.setType(dto.getType());
-        resource.setCapacity(dto.getCapacity());
-        resource.setLocation(dto.getLocation());
-        resource.setStatus(dto.getStatus());
-        resource.setFeatures(dto.getFeatures());
-        resource.setAvailabilitySchedule(dto.getAvailabilitySchedule());
-
-        resource.setImageUrl(upload.get("url"));
-        resource.setImagePublicId(upload.get("publicId"));
-
-        Resource saved = resourceRepository.save(resource);
+        Resource saved = transactionTemplate.execute(tx -> {
+            resourceCatalogCache.recordWrite();
+            return resourceRepository.save(newResource(dto, upload));
+        });
+        resourceSearchIndex.put(saved);
+        resourceCatalogCache.invalidate(saved.getId());
         return mapToResponse(saved);
     }
 
@@ -98,27 +120,32 @@ public class ResourceServiceImpl implements ResourceService {
 
 
         // ⭐ Image replacement flow
+        String oldPublicId = null;
         if (image != null && !image.isEmpty()) {
 
-            String oldPublicId = resource.getImagePublicId();
+            requireImageWithinLimit(image);
+            oldPublicId = resource.getImagePublicId();
 
             // 1️⃣ Upload new image first (safe)
             Map<String, String> upload = imageUploadService.uploadImage(image);
 
             resource.setImageUrl(upload.get("url"));
             resource.setImagePublicId(upload.get("publicId"));
-
-            // 2️⃣ Try deleting old image (not critical)
-            if (oldPublicId != null) {
-                try {
-                    imageUploadService.deleteImage(oldPublicId);
-                } catch (Exception e) {
-                    System.out.println("⚠ Warning: Failed to delete old Cloudinary image: " + oldPublicId);
-                }
-            }
         }
 
-        Resource saved = resourceRepository.save(resource);
+        // 2️⃣ Save, and queue the old image for deletion in the same transaction
+        //    (ImageDeletionWorker removes it from storage in the background)
+        String orphanedPublicId = oldPublicId;
+        Resource saved = transactionTemplate.execute(tx -> {
+            resourceCatalogCache.recordWrite();
+            Resource updated = resourceRepository.save(resource);
+            if (orphanedPublicId != null) {
+                imageDeletionService.enqueue(orphanedPublicId);
+            }
+            return updated;
+        });
+        resourceSearchIndex.put(saved);
+        resourceCatalogCache.invalidate(saved.getId());
         return mapToResponse(saved);
     }
 
@@ -128,9 +155,11 @@ public class ResourceServiceImpl implements ResourceService {
     // ----------------------------------------------------------------------
     @Override
     public ResourceResponse getResourceById(Long id) {
-        Resource resource = resourceRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Resource not found with given id"));
-        return mapToResponse(resource);
+        return resourceCatalogCache.getResource(id, () -> {
+            Resource resource = resourceRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Resource not found with given id"));
+            return mapToResponse(resource);
+        });
     }
 
 
@@ -147,24 +176,31 @@ public class ResourceServiceImpl implements ResourceService {
 
 
     // ----------------------------------------------------------------------
-    // DELETE RESOURCE (delete Cloudinary image too)
+    // DELETE RESOURCE (queues the Cloudinary image for deletion too)
     // ----------------------------------------------------------------------
     @Override
     public void deleteResource(Long id) {
 
-        Resource resource = resourceRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Resource not found"));
+        transactionTemplate.executeWithoutResult(tx -> {
+            Resource resource = resourceRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Resource not found"));
+
+            resourceRepository.delete(resource);
+            resourceCatalogCache.recordWrite();
 
-        // Delete image from Cloudinary
-        if (resource.getImagePublicId() != null) {
-            try {
-                imageUploadService.deleteImage(resource.getImagePublicId());
-            } catch (Exception e) {
-                System.out.println("⚠ Warning: Failed to delete resource image: " + resource.getImagePublicId());
+            // Removed from storage by ImageDeletionWorker once this commits
+            if (resource.getImagePublicId() != null) {
+                imageDeletionService.enqueue(resource.getImagePublicId());
             }
-        }
+        });
 
-        resourceRepository.deleteById(id);
+        resourceSearchIndex.remove(id);
+        resourceCatalogCache.invalidate(id);
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return resourceCatalogCache.version();
     }
 
     @Override
@@ -176,71 +212,155 @@ public class ResourceServiceImpl implements ResourceService {
                                                             Integer minCapacity,
                                                             Integer maxCapacity,
                                                             String location,
-                                                            String sort) {
-
-        int pageNum = (page == null || page < 0) ? 0 : page;
-        int pageSize = (size == null || size <= 0) ? 10 : size;
-
-        // parse sort parameter: property,dir  e.g. "capacity,desc"
-        Sort sortObj = Sort.by(Sort.Direction.DESC, "createdAt"); // default
-        if (sort != null && !sort.isBlank()) {
-            String[] parts = sort.split(",");
-            String prop = parts[0].trim();
-            String dir = (parts.length > 1) ? parts[1].trim().toLowerCase() : "desc";
-            Sort.Direction direction = "asc".equals(dir) ? Sort.Direction.ASC : Sort.Direction.DESC;
-            sortObj = Sort.by(direction, prop);
-        }
+                                                            String sort,
+                                                            String mode) {
 
-        Pageable pageable = PageRequest.of(pageNum, pageSize, sortObj);
+        ResourceQuery query = ResourceQuery.of(
+                page, size, search, type, status, minCapacity, maxCapacity, location, sort, mode);
 
-        // Build Specification dynamically
-        List<Specification<Resource>> specs = new ArrayList<>();
+        return resourceCatalogCache.getPage(query, () -> loadResources(query));
+    }
 
-        // search keyword
-        specs.add(ResourceSpecifications.searchKeyword(search));
+    private PaginatedResponse<ResourceResponse> loadResources(ResourceQuery query) {
 
-        // type
-        ResourceType resourceType = null;
-        if (type != null && !type.isBlank()) {
-            try { resourceType = ResourceType.valueOf(type.trim().toUpperCase()); } catch (Exception ignored) {}
-        }
-        specs.add(ResourceSpecifications.hasType(resourceType));
+        // Without an explicit sort, search results come back best match first
+        boolean rankByRelevance = query.hasSearch() && !query.hasSort();
 
-        // status
-        ResourceStatus resourceStatus = null;
-        if (status != null && !status.isBlank()) {
-            try { resourceStatus = ResourceStatus.valueOf(status.trim().toUpperCase()); } catch (Exception ignored) {}
-        }
-        specs.add(ResourceSpecifications.hasStatus(resourceStatus));
+        // whitelisted sort (validated in ResourceQuery), id tie-break included
+        Sort sortObj = query.hasSort()
+                ? query.sort().toSort(query.direction())
+                : ResourceSortKey.CREATED_AT.toSort(Sort.Direction.DESC); // default
+
+        Pageable pageable = PageRequest.of(query.page(), query.size(), sortObj);
+
+        // Build Specification dynamically
+        List<Specification<Resource>> specs = new ArrayList<>();
+
+        // type / status
+        specs.add(ResourceSpecifications.hasType(query.type()));
+        specs.add(ResourceSpecifications.hasStatus(query.status()));
 
         // capacity range
-        specs.add(ResourceSpecifications.capacityGreaterOrEq(minCapacity));
-        specs.add(ResourceSpecifications.capacityLessOrEq(maxCapacity));
+        specs.add(ResourceSpecifications.capacityGreaterOrEq(query.minCapacity()));
+        specs.add(ResourceSpecifications.capacityLessOrEq(query.maxCapacity()));
 
         // location contains
-        specs.add(ResourceSpecifications.locationContains(location));
+        specs.add(ResourceSpecifications.locationContains(query.location()));
 
         // combine specs
-        Specification<Resource> finalSpec = null;
+        Specification<Resource> filterSpec = null;
         for (Specification<Resource> s : specs) {
             if (s == null) continue;
-            finalSpec = (finalSpec == null) ? Specification.where(s) : finalSpec.and(s);
+            filterSpec = (filterSpec == null) ? Specification.where(s) : filterSpec.and(s);
         }
 
-        Page<Resource> resultPage = resourceRepository.findAll(finalSpec, pageable);
+        // search keyword: resolved against the in-memory index, the DB only sees the best hits' ids
+        List<Long> hits = null;
+        Specification<Resource> finalSpec = filterSpec;
+        if (query.hasSearch()) {
+            hits = resourceSearchIndex.search(query.search()).keySet().stream()
+                    .limit(MAX_SEARCH_HITS)
+                    .toList();
+            if (hits.isEmpty()) {
+                return new PaginatedResponse<>(List.of(), query.page(), query.size(), 0, 0, true);
+            }
+            Specification<Resource> idIn = ResourceSpecifications.idIn(hits);
+            finalSpec = (filterSpec == null) ? Specification.where(idIn) : idIn.and(filterSpec);
+        }
 
-        List<ResourceResponse> content = resultPage.getContent().stream()
+        if (rankByRelevance) {
+            Page<Resource> resultPage = pageByRelevance(hits, filterSpec == null ? null : finalSpec, pageable);
+            List<ResourceResponse> content = resultPage.getContent().stream()
+                    .map(this::mapToResponse)
+                    .collect(Collectors.toList());
+
+            if (query.slice()) {
+                return PaginatedResponse.slice(content, query.page(), query.size(), resultPage.hasNext());
+            }
+            return new PaginatedResponse<>(
+                    content,
+                    resultPage.getNumber(),
+                    resultPage.getSize(),
+                    resultPage.getTotalElements(),
+                    resultPage.getTotalPages(),
+                    resultPage.isLast()
+            );
+        }
+
+        // One row past the page tells us whether there is a next one, no COUNT(*) needed
+        List<Resource> rows = resourceRepository.findSlice(finalSpec, sortObj, pageable.getOffset(), query.size() + 1);
+        boolean hasNext = rows.size() > query.size();
+
+        List<ResourceResponse> content = rows.stream()
+                .limit(query.size())
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
 
-        return new PaginatedResponse<>(
-                content,
-                resultPage.getNumber(),
-                resultPage.getSize(),
-                resultPage.getTotalElements(),
-                resultPage.getTotalPages(),
-                resultPage.isLast()
-        );
+        if (query.slice()) {
+            return PaginatedResponse.slice(content, query.page(), query.size(), hasNext);
+        }
+
+        // Totals: known outright when the first page holds everything, otherwise counted once per filter
+        Specification<Resource> countSpec = finalSpec;
+        long total = (query.page() == 0 && !hasNext)
+                ? rows.size()
+                : resourceCatalogCache.getCount(query, () -> resourceRepository.count(countSpec));
+        int totalPages = (int) ((total + query.size() - 1) / query.size());
+
+        return new PaginatedResponse<>(content, query.page(), query.size(), total, totalPages, !hasNext);
+    }
+
+
+    /**
+     * Pages the hits (best first) before any row is loaded: the other filters, if any, run
+     * in the DB as an id-only query restricted to the hits, then only the requested page of
+     * survivors is fetched. Totals count the best MAX_SEARCH_HITS hits at most.
+     */
+    private Page<Resource> pageByRelevance(List<Long> hits,
+                                           Specification<Resource> filterSpec,
+                                           Pageable pageable) {
+        List<Long> matches = hits;
+        if (filterSpec != null) {
+            Set<Long> survivors = new HashSet<>(resourceRepository.findIds(filterSpec));
+            matches = hits.stream().filter(survivors::contains).toList();
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<Long> pageIds = matches.subList(from, to);
+
+        Map<Long, Resource> rows = resourceRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Resource::getId, Function.identity()));
+        List<Resource> content = pageIds.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull) // deleted since the index last caught up
+                .toList();
+        return new PageImpl<>(content, pageable, matches.size());
+    }
+
+
+    // The multipart limit is sized for import archives, so single images are checked here
+    private void requireImageWithinLimit(MultipartFile image) {
+        if (image.getSize() > maxImageSize.toBytes()) {
+            throw new RuntimeException("Image must be at most " + maxImageSize.toMegabytes() + " MB");
+        }
+    }
+
+    // Shared with the bulk import
+    static Resource newResource(CreateResourceRequest dto, Map<String, String> upload) {
+        Resource resource = new Resource();
+        resource.setName(dto.getName());
+        resource.setDescription(dto.getDescription());
+        resource.setType(dto.getType());
+        resource.setCapacity(dto.getCapacity());
+        resource.setLocation(dto.getLocation());
+        resource.setStatus(dto.getStatus());
+        resource.setFeatures(dto.getFeatures());
+        resource.setAvailabilitySchedule(dto.getAvailabilitySchedule());
+
+        resource.setImageUrl(upload.get("url"));
+        resource.setImagePublicId(upload.get("publicId"));
+        return resource;
     }
 
 
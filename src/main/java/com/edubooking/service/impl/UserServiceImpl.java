@@ -0,0 +1,69 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.model.Role;
+import com.edubooking.model.User;
+import com.edubooking.repository.BookingRepository;
+import com.edubooking.repository.UserRepository;
+import com.edubooking.service.TokenRevocationList;
+import com.edubooking.service.UserService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Account changes that invalidate the claims of tokens already handed out.
+ *
+ * JwtFilter trusts the id and role signed into the token, so both paths revoke the
+ * user's earlier tokens in the same transaction as the change: the revocation row
+ * commits (or rolls back) with it, and other nodes pick it up on their next refresh.
+ */
+@Service
+public class UserServiceImpl implements UserService {
+
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final TokenRevocationList tokenRevocationList;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserServiceImpl(UserRepository userRepository,
+                           BookingRepository bookingRepository,
+                           TokenRevocationList tokenRevocationList,
+                           TransactionTemplate transactionTemplate) {
+        this.userRepository = userRepository;
+        this.bookingRepository = bookingRepository;
+        this.tokenRevocationList = tokenRevocationList;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public User changeRole(Long userId, Role role) {
+        if (role == null) {
+            throw new RuntimeException("Role is required");
+        }
+
+        return transactionTemplate.execute(tx -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            if (user.getRole() == role) return user;
+
+            user.setRole(role);
+            tokenRevocationList.revoke(userId, "role changed to " + role);
+            return userRepository.save(user);
+        });
+    }
+
+    @Override
+    public void deleteUser(Long userId) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            if (!userRepository.existsById(userId)) {
+                throw new RuntimeException("User not found");
+            }
+            // bookings keep their user for history and analytics
+            if (bookingRepository.existsByUserId(userId)) {
+                throw new RuntimeException("User has bookings and cannot be deleted");
+            }
+
+            userRepository.deleteById(userId);
+            tokenRevocationList.revoke(userId, "user deleted");
+        });
+    }
+}
@@ -0,0 +1,200 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.dto.UtilisationResponse;
+import com.edubooking.model.UtilisationRollup;
+import com.edubooking.repository.BookingRepository;
+import com.edubooking.repository.UtilisationRollupRepository;
+import com.edubooking.repository.projection.BookingInterval;
+import com.edubooking.service.UtilisationService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class UtilisationServiceImpl implements UtilisationService {
+
+    private static final int MAX_RANGE_DAYS = 366;
+
+    // Rows per upsert batch during a rebuild
+    private static final int REBUILD_CHUNK = 1000;
+
+    private static final String UPSERT = """
+            INSERT INTO resource_utilisation_hourly (resource_id, bucket_start, booked_minutes)
+            VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE booked_minutes = booked_minutes + VALUES(booked_minutes)
+            """;
+
+    private static final Comparator<BucketKey> BUCKET_ORDER =
+            Comparator.comparing(BucketKey::resourceId).thenComparing(BucketKey::bucketStart);
+
+    private final UtilisationRollupRepository utilisationRollupRepository;
+    private final BookingRepository bookingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public UtilisationServiceImpl(UtilisationRollupRepository utilisationRollupRepository,
+                                  BookingRepository bookingRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate) {
+        this.utilisationRollupRepository = utilisationRollupRepository;
+        this.bookingRepository = bookingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // ------------------------------------------------------------
+    // INCREMENTAL MAINTENANCE
+    // ------------------------------------------------------------
+    @Override
+    public void addApproved(Collection<BookingInterval> intervals) {
+        apply(intervals, 1);
+    }
+
+    @Override
+    public void removeApproved(Collection<BookingInterval> intervals) {
+        apply(intervals, -1);
+    }
+
+    /**
+     * Split each booking into clock-hour buckets, merge the deltas, and upsert them in one
+     * JDBC batch. Buckets are written in (resource, hour) order so two transactions touching
+     * the same buckets lock them in the same order.
+     */
+    private void apply(Collection<BookingInterval> intervals, int sign) {
+        if (intervals.isEmpty()) return;
+
+        Map<BucketKey, Integer> deltas = new TreeMap<>(BUCKET_ORDER);
+        for (BookingInterval interval : intervals) {
+            addBuckets(deltas, interval, sign);
+        }
+        upsert(deltas);
+    }
+
+    private static void addBuckets(Map<BucketKey, Integer> deltas, BookingInterval interval, int sign) {
+        LocalDateTime bucket = interval.startTime().truncatedTo(ChronoUnit.HOURS);
+
+        while (bucket.isBefore(interval.endTime())) {
+            LocalDateTime next = bucket.plusHours(1);
+            LocalDateTime from = interval.startTime().isAfter(bucket) ? interval.startTime() : bucket;
+            LocalDateTime to = interval.endTime().isBefore(next) ? interval.endTime() : next;
+
+            int minutes = (int) Duration.between(from, to).toMinutes();
+            if (minutes > 0) {
+                deltas.merge(new BucketKey(interval.resourceId(), bucket), sign * minutes, Integer::sum);
+            }
+            bucket = next;
+        }
+    }
+
+    private void upsert(Map<BucketKey, Integer> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, minutes) -> {
+            if (minutes != 0) {
+                rows.add(new Object[]{key.resourceId(), Timestamp.valueOf(key.bucketStart()), minutes});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // ANALYTICS (rollups only, never the bookings table)
+    // ------------------------------------------------------------
+    @Override
+    public UtilisationResponse getUtilisation(Long resourceId, LocalDate from, LocalDate to) {
+
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new RuntimeException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new RuntimeException("Range can be at most " + MAX_RANGE_DAYS + " days");
+        }
+
+        List<UtilisationRollup> buckets = utilisationRollupRepository.findBuckets(
+                resourceId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+
+        Map<LocalDate, Long> byDay = new TreeMap<>();
+        Map<LocalDate, Long> byWeek = new TreeMap<>();
+        long[] byHour = new long[24];
+        long total = 0;
+
+        for (UtilisationRollup bucket : buckets) {
+            long minutes = bucket.getBookedMinutes();
+            LocalDate day = bucket.getBucketStart().toLocalDate();
+
+            byDay.merge(day, minutes, Long::sum);
+            byWeek.merge(day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)), minutes, Long::sum);
+            byHour[bucket.getBucketStart().getHour()] += minutes;
+            total += minutes;
+        }
+
+        Integer peakHour = null;
+        for (int h = 0; h < 24; h++) {
+            if (byHour[h] > 0 && (peakHour == null || byHour[h] > byHour[peakHour])) {
+                peakHour = h;
+            }
+        }
+
+        return new UtilisationResponse(
+                resourceId,
+                from,
+                to,
+                total,
+                byDay.entrySet().stream()
+                        .map(e -> new UtilisationResponse.DayTotal(e.getKey(), e.getValue()))
+                        .toList(),
+                byWeek.entrySet().stream()
+                        .map(e -> new UtilisationResponse.WeekTotal(e.getKey(), e.getValue()))
+                        .toList(),
+                byHour,
+                peakHour
+        );
+    }
+
+    // ------------------------------------------------------------
+    // REBUILD (Admin backfill)
+    // ------------------------------------------------------------
+
+    /**
+     * One transaction: the DELETE locks the rollup rows first, so an approval committing
+     * meanwhile waits for us and then adds its own minutes on top; nothing is counted twice.
+     */
+    @Override
+    public int rebuild() {
+        return transactionTemplate.execute(tx -> {
+            jdbcTemplate.update("DELETE FROM resource_utilisation_hourly");
+
+            List<BookingInterval> approved = bookingRepository.findAllApprovedIntervals();
+
+            Map<BucketKey, Integer> deltas = new TreeMap<>(BUCKET_ORDER);
+            for (BookingInterval interval : approved) {
+                addBuckets(deltas, interval, 1);
+                if (deltas.size() >= REBUILD_CHUNK) {
+                    upsert(deltas);
+                    deltas.clear();
+                }
+            }
+            upsert(deltas);
+
+            return approved.size();
+        });
+    }
+
+    private record BucketKey(Long resourceId, LocalDateTime bucketStart) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.edubooking.config;
+
+import com.edubooking.model.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the MySQL layout of the sequence (a one-row resource_seq table), which is
+ * what the initializer updates; H2 would otherwise get a native sequence.
+ */
+class ResourceIdSequenceInitializerTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE resources (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE resource_seq (next_val BIGINT)");
+        jdbcTemplate.update("INSERT INTO resource_seq VALUES (1)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void movesTheSequencePastRowsFromTheAutoIncrementEra() {
+        jdbcTemplate.update("INSERT INTO resources VALUES (7), (420)");
+
+        new ResourceIdSequenceInitializer(jdbcTemplate).alignWithExistingIds();
+
+        // the pooled optimizer hands out [next_val - allocationSize, next_val): all above 420
+        long nextVal = nextVal();
+        assertThat(nextVal).isEqualTo(420 + Resource.ID_ALLOCATION_SIZE + 1);
+        assertThat(nextVal - Resource.ID_ALLOCATION_SIZE).isGreaterThan(420);
+    }
+
+    @Test
+    void neverMovesTheSequenceBack() {
+        jdbcTemplate.update("INSERT INTO resources VALUES (10)");
+        jdbcTemplate.update("UPDATE resource_seq SET next_val = 5000");
+
+        ResourceIdSequenceInitializer initializer = new ResourceIdSequenceInitializer(jdbcTemplate);
+        initializer.alignWithExistingIds();
+        initializer.alignWithExistingIds(); // a second node starting up
+
+        assertThat(nextVal()).isEqualTo(5000);
+    }
+
+    @Test
+    void emptyTableStillLeavesTheFirstBlockAboveZero() {
+        new ResourceIdSequenceInitializer(jdbcTemplate).alignWithExistingIds();
+
+        assertThat(nextVal() - Resource.ID_ALLOCATION_SIZE).isGreaterThan(0);
+    }
+
+    private long nextVal() {
+        return jdbcTemplate.queryForObject("SELECT next_val FROM resource_seq", Long.class);
+    }
+}
@@ -0,0 +1,74 @@
+package com.edubooking.middleware;
+
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private long now = 0;
+
+    private final RateLimitFilter filter = new RateLimitFilter(1000, () -> now)
+            .limit(HttpMethod.POST, "/auth/login", 3, Duration.ofMinutes(1));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void allowsBurstThenRejectsWithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(call("POST", "/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse rejected = call("POST", "/auth/login", "10.0.0.1");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("20");
+    }
+
+    @Test
+    void refillsOverTime() throws Exception {
+        for (int i = 0; i < 3; i++) call("POST", "/auth/login", "10.0.0.1");
+        assertThat(call("POST", "/auth/login", "10.0.0.1").getStatus()).isEqualTo(429);
+
+        now += Duration.ofSeconds(20).toNanos();
+        assertThat(call("POST", "/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(call("POST", "/auth/login", "10.0.0.1").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void keysByIpOrUserAndIgnoresOtherRoutes() throws Exception {
+        for (int i = 0; i < 3; i++) call("POST", "/auth/login", "10.0.0.1");
+
+        assertThat(call("POST", "/auth/login", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(call("GET", "/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(call("POST", "/resources/create", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "42", null, List.of(new SimpleGrantedAuthority("ROLE_STUDENT"))));
+        assertThat(call("POST", "/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse call(String method, String path, String ip) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,115 @@
+package com.edubooking.repository;
+
+import com.edubooking.dto.BookingResponse;
+import com.edubooking.model.Booking;
+import com.edubooking.model.BookingStatus;
+import com.edubooking.model.Resource;
+import com.edubooking.model.ResourceStatus;
+import com.edubooking.model.ResourceType;
+import com.edubooking.model.Role;
+import com.edubooking.model.User;
+import com.edubooking.repository.spec.BookingSpecifications;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BookingListingQueryTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User student;
+
+    @BeforeEach
+    void seed() {
+        student = user("student@test.local");
+        User other = user("other@test.local");
+
+        LocalDateTime start = LocalDateTime.of(2025, 3, 3, 9, 0);
+        for (int i = 0; i < 10; i++) {
+            Resource room = resource("Room " + i);
+            booking(student, room, start.plusDays(i), BookingStatus.PENDING);
+            booking(other, room, start.plusDays(i).plusHours(2), BookingStatus.APPROVED);
+        }
+        em.flush();
+        em.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void myBookingsIsOneStatement() {
+        List<BookingResponse> mine = bookingRepository.findResponsesByUserId(student.getId());
+
+        assertThat(mine).hasSize(10);
+        assertThat(mine).allSatisfy(r -> {
+            assertThat(r.getUserId()).isEqualTo(student.getId());
+            assertThat(r.getResourceName()).startsWith("Room ");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void adminListingIsOneStatement() {
+        List<BookingResponse> approved = bookingRepository.findResponses(
+                BookingSpecifications.hasStatus(BookingStatus.APPROVED), 6);
+
+        assertThat(approved).hasSize(6);
+        assertThat(approved).extracting(BookingResponse::getStatus).containsOnly(BookingStatus.APPROVED);
+        assertThat(approved).extracting(BookingResponse::getId).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private User user(String email) {
+        User u = new User();
+        u.setName(email);
+        u.setEmail(email);
+        u.setHashPassword("x");
+        u.setRole(Role.STUDENT);
+        return em.persist(u);
+    }
+
+    private Resource resource(String name) {
+        Resource r = new Resource();
+        r.setName(name);
+        r.setType(ResourceType.CLASSROOM);
+        r.setStatus(ResourceStatus.AVAILABLE);
+        r.setDescription("long description ".repeat(50));
+        return em.persist(r);
+    }
+
+    private void booking(User user, Resource resource, LocalDateTime start, BookingStatus status) {
+        Booking b = new Booking();
+        b.setUser(user);
+        b.setResource(resource);
+        b.setStartTime(start);
+        b.setEndTime(start.plusHours(1));
+        b.setStatus(status);
+        b.setPurpose("test");
+        em.persist(b);
+    }
+}
@@ -0,0 +1,117 @@
+package com.edubooking.repository;
+
+import com.edubooking.model.Booking;
+import com.edubooking.model.BookingStatus;
+import com.edubooking.model.Resource;
+import com.edubooking.model.ResourceStatus;
+import com.edubooking.model.ResourceType;
+import com.edubooking.model.Role;
+import com.edubooking.model.User;
+import com.edubooking.service.BookingDurationLimit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class BookingOverlapProbeTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 3, 0, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private User user;
+    private Resource room;
+
+    @BeforeEach
+    void seed() {
+        user = new User();
+        user.setName("u");
+        user.setEmail("u@test.local");
+        user.setHashPassword("x");
+        user.setRole(Role.STUDENT);
+        em.persist(user);
+
+        room = new Resource();
+        room.setName("Room");
+        room.setType(ResourceType.CLASSROOM);
+        room.setStatus(ResourceStatus.AVAILABLE);
+        em.persist(room);
+
+        // approved 09-10 and 12-13, plus a long history before and a pending request in between
+        for (int d = 1; d <= 30; d++) {
+            booking(user, DAY.minusDays(d).plusHours(9), 1, BookingStatus.APPROVED);
+        }
+        booking(user, DAY.plusHours(9), 1, BookingStatus.APPROVED);
+        booking(user, DAY.plusHours(12), 1, BookingStatus.APPROVED);
+        booking(user, DAY.plusHours(10), 2, BookingStatus.PENDING);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void findsOverlapsWithTheNextApprovedBooking() {
+        assertThat(overlaps(9, 10)).isTrue();
+        assertThat(overlaps(8, 12)).isTrue();
+        assertThat(overlaps(12, 14)).isTrue();
+        assertThat(overlaps(11, 17)).isTrue();
+    }
+
+    @Test
+    void touchingAndPendingBookingsDoNotCount() {
+        assertThat(overlaps(10, 12)).isFalse();
+        assertThat(overlaps(8, 9)).isFalse();
+        assertThat(overlaps(13, 18)).isFalse();
+    }
+
+    @Test
+    void findsOverlapsWithLegacyOverlappingApprovals() {
+        // stored before approvals were serialised: 08-20 overlaps both approvals above
+        booking(user, DAY.plusHours(8), 12, BookingStatus.APPROVED);
+        em.flush();
+
+        // the next approval to end after 10:00 is 12-13, which does not overlap 10-11; 08-20 does
+        assertThat(overlaps(10, 11)).isTrue();
+        assertThat(overlaps(19, 21)).isTrue();
+        assertThat(overlaps(20, 21)).isFalse();
+    }
+
+    @Test
+    void storedBookingsLongerThanTheCapWidenTheLookBack() {
+        booking(user, DAY.plusHours(8), 12, BookingStatus.PENDING);
+        em.flush();
+
+        BookingDurationLimit limit = new BookingDurationLimit(bookingRepository, Duration.ofHours(3));
+        limit.load();
+
+        assertThat(limit.longest()).isEqualTo(Duration.ofHours(12));
+    }
+
+    private boolean overlaps(int fromHour, int toHour) {
+        BookingDurationLimit limit = new BookingDurationLimit(bookingRepository, Duration.ofHours(3));
+        limit.load();
+        return bookingRepository.existsOverlappingBooking(
+                room.getId(), DAY.plusHours(fromHour), DAY.plusHours(toHour), limit.longest());
+    }
+
+    private void booking(User user, LocalDateTime start, int hours, BookingStatus status) {
+        Booking b = new Booking();
+        b.setUser(user);
+        b.setResource(room);
+        b.setStartTime(start);
+        b.setEndTime(start.plusHours(hours));
+        b.setStatus(status);
+        b.setPurpose("test");
+        em.persist(b);
+    }
+}
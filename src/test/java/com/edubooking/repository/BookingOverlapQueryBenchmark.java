@@ -0,0 +1,155 @@
+package com.edubooking.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of the overlap probes as the bookings table grows.
+ *
+ * Opt-in, it seeds millions of rows:
+ *   ./mvnw test -Dtest=BookingOverlapQueryBenchmark -Dbenchmark=true
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookingOverlapQueryBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingOverlapQueryBenchmark.class);
+
+    private static final int USERS = 5_000;
+    private static final int RESOURCES = 500;
+    private static final int[] TABLE_SIZES = {10_000, 100_000, 1_000_000, 3_000_000};
+    private static final int QUERIES = 5_000;
+    private static final int BATCH = 10_000;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2020, 1, 1, 8, 0);
+    // seeded bookings last 1-3 hours (see insertBookings)
+    private static final Duration LONGEST = Duration.ofHours(3);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void overlapLatencyStaysFlatAsTableGrows() {
+        seedUsersAndResources();
+
+        List<Double> medians = new ArrayList<>();
+        int rows = 0;
+        for (int target : TABLE_SIZES) {
+            insertBookings(rows, target);
+            rows = target;
+
+            warmUp();
+            double resourceMedian = medianMicros(true);
+            double userMedian = medianMicros(false);
+            medians.add(resourceMedian);
+
+            log.info("bookings={} resource-probe p50={}us user-exists p50={}us",
+                    rows, String.format("%.1f", resourceMedian), String.format("%.1f", userMedian));
+        }
+
+        // The resource check scans start_time in (start - longest, end), a handful of rows, so it
+        // grows with log(n) only. Per-resource history grows 300x here (20 -> 6,000 rows); a check
+        // that scanned the earlier bookings of the resource would blow well past this bound.
+        assertThat(medians.get(medians.size() - 1)).isLessThan(medians.get(0) * 2 + 5);
+    }
+
+    private void seedUsersAndResources() {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{i, "User " + i, "user" + i + "@bench.local", "x", "STUDENT"});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, name, email, hash_password, role) VALUES (?, ?, ?, ?, ?)", users);
+
+        List<Object[]> resources = new ArrayList<>();
+        for (int i = 1; i <= RESOURCES; i++) {
+            resources.add(new Object[]{i, "Room " + i, "CLASSROOM", "AVAILABLE"});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO resources (id, name, type, status) VALUES (?, ?, ?, ?)", resources);
+    }
+
+    private void insertBookings(int from, int to) {
+        String[] statuses = {"APPROVED", "APPROVED", "PENDING", "REJECTED", "CANCELLED"};
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = from; i < to; i++) {
+            LocalDateTime start = randomSlot();
+            batch.add(new Object[]{
+                    1 + random.nextInt(USERS),
+                    1 + random.nextInt(RESOURCES),
+                    Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusHours(1 + random.nextInt(3))),
+                    statuses[random.nextInt(statuses.length)]
+            });
+            if (batch.size() == BATCH) {
+                flush(batch);
+            }
+        }
+        flush(batch);
+    }
+
+    private void flush(List<Object[]> batch) {
+        if (batch.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO bookings (user_id, resource_id, start_time, end_time, status) VALUES (?, ?, ?, ?, ?)",
+                batch);
+        batch.clear();
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 1_000; i++) {
+            query(true);
+            query(false);
+        }
+    }
+
+    private double medianMicros(boolean byResource) {
+        long[] samples = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long t0 = System.nanoTime();
+            query(byResource);
+            samples[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(samples);
+        return samples[QUERIES / 2] / 1_000.0;
+    }
+
+    private boolean query(boolean byResource) {
+        LocalDateTime start = randomSlot();
+        LocalDateTime end = start.plusHours(1);
+        return byResource
+                ? bookingRepository.existsOverlappingBooking((long) (1 + random.nextInt(RESOURCES)), start, end, LONGEST)
+                : bookingRepository.existsOverlappingUserBooking((long) (1 + random.nextInt(USERS)), start, end);
+    }
+
+    // ~3 years of hourly slots between 08:00 and 18:00
+    private LocalDateTime randomSlot() {
+        return EPOCH.plusDays(random.nextInt(365 * 3)).plusHours(random.nextInt(10));
+    }
+}
@@ -0,0 +1,69 @@
+package com.edubooking.service;
+
+import com.edubooking.dto.AvailabilityChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityHubTest {
+
+    private static final Long ROOM = 1L;
+    private static final int ROUNDS = 2_000;
+    private static final int THREADS = 8;
+    private static final LocalDateTime NINE = LocalDateTime.of(2025, 3, 3, 9, 0);
+
+    private final AvailabilityHub hub = new AvailabilityHub(ROUNDS * 2, 16, 60_000, 25);
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void subscribersJoiningWhileTheLastOneLeavesStillGetChanges() throws Exception {
+        Queue<SseEmitter> kept = new ConcurrentLinkedQueue<>();
+
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < ROUNDS; i++) {
+            boolean keep = i % 10 == 0;
+            pool.submit(() -> {
+                go.await();
+                SseEmitter emitter = hub.subscribe(List.of(ROOM));
+                if (keep) {
+                    kept.add(emitter);
+                } else {
+                    // the writer's next send fails on a completed emitter, which unsubscribes it
+                    emitter.complete();
+                    hub.publish(List.of(new AvailabilityChange(ROOM, 1L, NINE, NINE.plusHours(1), true)));
+                }
+                return null;
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        // wake any writer still parked on its queue, then wait for the leavers to be gone
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (hub.subscriberCount() > kept.size() && System.nanoTime() < deadline) {
+            hub.publish(List.of(new AvailabilityChange(ROOM, 1L, NINE, NINE.plusHours(1), true)));
+            Thread.sleep(10);
+        }
+        assertThat(hub.subscriberCount()).isEqualTo(kept.size());
+
+        // every open subscription is still reachable through the resource, so it gets deltas
+        assertThat(hub.subscriberCount(ROOM)).isEqualTo(kept.size());
+    }
+}
@@ -0,0 +1,100 @@
+package com.edubooking.service;
+
+import com.edubooking.dto.AvailabilityChange;
+import com.edubooking.model.Booking;
+import com.edubooking.model.BookingStatus;
+import com.edubooking.model.Resource;
+import com.edubooking.repository.BookingRepository;
+import com.edubooking.repository.projection.BookingInterval;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+
+    private static final LocalDateTime NINE = LocalDateTime.of(2025, 3, 3, 9, 0);
+    private static final BookingInterval REMOTE = new BookingInterval(7L, 1L, NINE, NINE.plusHours(1));
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final AvailabilityHub availabilityHub = mock(AvailabilityHub.class);
+    private final BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, availabilityHub);
+
+    @BeforeEach
+    void setUp() {
+        when(bookingRepository.findAllApprovedIntervals()).thenReturn(List.of());
+        index.load();
+    }
+
+    @Test
+    void sweepPicksUpApprovalsAndCancellationsFromOtherNodes() {
+        changed(List.of(REMOTE), List.of());
+        index.reconcile();
+        assertThat(index.hasOverlap(1L, NINE.plusMinutes(30), NINE.plusHours(2))).isTrue();
+
+        changed(List.of(), List.of(REMOTE));
+        index.reconcile();
+        assertThat(index.hasOverlap(1L, NINE.plusMinutes(30), NINE.plusHours(2))).isFalse();
+    }
+
+    @Test
+    void replayingTheSameChangesIsHarmless() {
+        changed(List.of(REMOTE), List.of());
+        index.reconcile();
+        index.reconcile();
+
+        assertThat(index.findOverlapping(1L, NINE, NINE.plusHours(1))).containsExactly(REMOTE);
+    }
+
+    @Test
+    void sweepPublishesOtherNodesChangesOnce() {
+        changed(List.of(REMOTE), List.of());
+        index.reconcile();
+        index.reconcile();
+
+        changed(List.of(), List.of(REMOTE));
+        index.reconcile();
+        index.reconcile();
+
+        verify(availabilityHub, times(1)).publish(List.of(new AvailabilityChange(1L, 7L, NINE, NINE.plusHours(1), true)));
+        verify(availabilityHub, times(1)).publish(List.of(new AvailabilityChange(1L, 7L, NINE, NINE.plusHours(1), false)));
+        verify(availabilityHub, times(2)).publish(any());
+    }
+
+    @Test
+    void changesAlreadyAppliedLocallyAreNotPublishedAgain() {
+        index.add(bookingOf(REMOTE));
+
+        changed(List.of(REMOTE), List.of());
+        index.reconcile();
+
+        verify(availabilityHub, times(0)).publish(any());
+    }
+
+    private void changed(List<BookingInterval> approved, List<BookingInterval> released) {
+        when(bookingRepository.findIntervalsChangedSince(any(), eq(List.of(BookingStatus.APPROVED)))).thenReturn(approved);
+        when(bookingRepository.findIntervalsChangedSince(any(), eq(List.of(BookingStatus.REJECTED, BookingStatus.CANCELLED))))
+                .thenReturn(released);
+    }
+
+    // a booking this node approved itself: the index was updated right after its commit
+    private static Booking bookingOf(BookingInterval interval) {
+        Resource resource = new Resource();
+        resource.setId(interval.resourceId());
+        Booking booking = new Booking();
+        booking.setId(interval.bookingId());
+        booking.setResource(resource);
+        booking.setStartTime(interval.startTime());
+        booking.setEndTime(interval.endTime());
+        return booking;
+    }
+}
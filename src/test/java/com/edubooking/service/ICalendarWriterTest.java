@@ -0,0 +1,39 @@
+package com.edubooking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ICalendarWriterTest {
+
+    @Test
+    void escapesTextValues() {
+        assertThat(ICalendarWriter.escape("a,b;c\\d\r\ne")).isEqualTo("a\\,b\\;c\\\\d\\ne");
+    }
+
+    @Test
+    void foldsLongLinesAt75OctetsWithoutSplittingCharacters() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ICalendarWriter ics = new ICalendarWriter(out);
+        ics.text("SUMMARY", "é".repeat(100));
+        ics.flush();
+
+        String written = out.toString(StandardCharsets.UTF_8);
+        assertThat(written).endsWith("\r\n");
+
+        String[] lines = written.substring(0, written.length() - 2).split("\r\n");
+        assertThat(lines.length).isGreaterThan(1);
+        for (int i = 0; i < lines.length; i++) {
+            assertThat(lines[i].getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(75);
+            if (i > 0) assertThat(lines[i]).startsWith(" ");
+        }
+
+        StringBuilder unfolded = new StringBuilder(lines[0]);
+        for (int i = 1; i < lines.length; i++) unfolded.append(lines[i].substring(1));
+        assertThat(unfolded.toString()).isEqualTo("SUMMARY:" + "é".repeat(100));
+    }
+}
@@ -0,0 +1,101 @@
+package com.edubooking.service;
+
+import com.edubooking.dto.resource.ResourceResponse;
+import com.edubooking.repository.CatalogVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ResourceCatalogCacheTest {
+
+    @Autowired
+    private CatalogVersionRepository catalogVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private ResourceCatalogCache nodeA;
+    private ResourceCatalogCache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // two nodes: separate local caches, one database; version re-read on every call
+        nodeA = node();
+        nodeB = node();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        catalogVersionRepository.deleteAll();
+    }
+
+    @Test
+    void writeOnOneNodeChangesTheVersionSeenByAnother() {
+        long before = nodeB.version();
+        assertThat(nodeA.version()).isEqualTo(before);
+
+        transactionTemplate.executeWithoutResult(tx -> nodeA.recordWrite());
+
+        assertThat(nodeB.version()).isNotEqualTo(before);
+        assertThat(nodeB.version()).isEqualTo(nodeA.version());
+    }
+
+    @Test
+    void rolledBackWriteLeavesTheVersionAlone() {
+        long before = nodeA.version();
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            nodeA.recordWrite();
+            tx.setRollbackOnly();
+        });
+
+        assertThat(nodeB.version()).isEqualTo(before);
+    }
+
+    @Test
+    void entriesCachedBeforeARemoteWriteAreReloaded() {
+        AtomicInteger loads = new AtomicInteger();
+
+        nodeB.getResource(1L, () -> resource(loads.incrementAndGet()));
+        nodeB.getResource(1L, () -> resource(loads.incrementAndGet()));
+        assertThat(loads).hasValue(1);
+
+        transactionTemplate.executeWithoutResult(tx -> nodeA.recordWrite());
+
+        ResourceResponse reloaded = nodeB.getResource(1L, () -> resource(loads.incrementAndGet()));
+        assertThat(loads).hasValue(2);
+        assertThat(reloaded.getCapacity()).isEqualTo(2);
+    }
+
+    private ResourceCatalogCache node() {
+        ResourceCatalogCache cache = new ResourceCatalogCache(
+                new ConcurrentMapCacheManager(ResourceCatalogCache.RESOURCES, ResourceCatalogCache.CATALOG,
+                        ResourceCatalogCache.COUNTS),
+                catalogVersionRepository,
+                0);
+        cache.ensureVersionRow();
+        return cache;
+    }
+
+    private static ResourceResponse resource(int capacity) {
+        ResourceResponse response = new ResourceResponse();
+        response.setId(1L);
+        response.setCapacity(capacity);
+        return response;
+    }
+}
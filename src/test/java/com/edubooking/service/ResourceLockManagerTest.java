@@ -0,0 +1,85 @@
+package com.edubooking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceLockManagerTest {
+
+    private static final int THREADS = 400;
+    private static final int SLOTS = 24;
+
+    private final ResourceLockManager lockManager = new ResourceLockManager();
+
+    @Test
+    void hundredsOfThreadsOnOneResourceNeverDoubleBook() throws Exception {
+        // deliberately not thread-safe: the lock is the only thing protecting it
+        List<Integer> bookedSlots = new ArrayList<>();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            pool.submit(() -> {
+                go.await();
+                int slot = ThreadLocalRandom.current().nextInt(SLOTS);
+                return lockManager.withLock(1L, () -> {
+                    boolean taken = bookedSlots.contains(slot);
+                    Thread.yield(); // widen the check-then-act window
+                    if (taken) {
+                        rejected.incrementAndGet();
+                        return false;
+                    }
+                    bookedSlots.add(slot);
+                    return true;
+                });
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(bookedSlots).doesNotHaveDuplicates();
+        assertThat(bookedSlots.size() + rejected.get()).isEqualTo(THREADS);
+    }
+
+    @Test
+    void unrelatedResourcesAreNotSerialised() throws Exception {
+        long other = 2L;
+        while (lockManager.stripeOf(other) == lockManager.stripeOf(1L)) other++;
+        long otherResource = other;
+
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> lockManager.withLock(1L, () -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holder.start();
+        assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // must not block behind resource 1
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        boolean ran = pool.submit(() -> lockManager.withLock(otherResource, () -> true))
+                .get(5, TimeUnit.SECONDS);
+
+        release.countDown();
+        holder.join();
+        pool.shutdown();
+        assertThat(ran).isTrue();
+    }
+}
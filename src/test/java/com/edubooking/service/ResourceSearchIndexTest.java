@@ -0,0 +1,86 @@
+package com.edubooking.service;
+
+import com.edubooking.model.Resource;
+import com.edubooking.repository.ResourceRepository;
+import com.edubooking.repository.projection.ResourceSearchDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResourceSearchIndexTest {
+
+    private final ResourceRepository resourceRepository = mock(ResourceRepository.class);
+    private final ResourceCatalogCache catalogCache = mock(ResourceCatalogCache.class);
+    private final ResourceSearchIndex index = new ResourceSearchIndex(resourceRepository, catalogCache);
+
+    @BeforeEach
+    void setUp() {
+        when(catalogCache.version()).thenReturn(1L);
+        when(resourceRepository.findAllSearchDocuments()).thenReturn(List.of());
+        index.load();
+
+        index.put(resource(1, "Lab 3", "Chemistry lab with fume hoods", "projector, sinks"));
+        index.put(resource(2, "Projector Room", "Small meeting room", "projector, whiteboard"));
+        index.put(resource(3, "Main Hall", "Large hall for exams", "stage, microphones"));
+    }
+
+    @Test
+    void prefixMatchesAndNameHitsRankFirst() {
+        assertThat(index.search("proj").keySet()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void everyWordMustMatch() {
+        assertThat(index.search("projector whiteboard").keySet()).containsExactly(2L);
+        assertThat(index.search("hall projector")).isEmpty();
+        assertThat(index.search("  ,;  ")).isEmpty();
+    }
+
+    @Test
+    void updatesAndDeletesAreReflected() {
+        index.put(resource(3, "Main Hall", "Large hall for exams", "stage, projector"));
+        assertThat(index.search("projector").keySet()).containsExactlyInAnyOrder(1L, 2L, 3L);
+
+        index.remove(2L);
+        assertThat(index.search("whiteboard")).isEmpty();
+        assertThat(index.search("projector").keySet()).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void searchesPickUpWritesFromOtherNodesOnceTheCatalogVersionMoves() {
+        // node B renamed 3 and deleted 2
+        when(resourceRepository.findSearchDocumentsChangedSince(any()))
+                .thenReturn(List.of(new ResourceSearchDocument(3L, "Projection Hall", "Large hall for exams", "stage")));
+        when(resourceRepository.findAllIds()).thenReturn(List.of(1L, 3L));
+
+        // version unchanged: nothing written anywhere, no sweep
+        assertThat(index.search("whiteboard").keySet()).containsExactly(2L);
+        verify(resourceRepository, never()).findAllIds();
+
+        when(catalogCache.version()).thenReturn(2L);
+        assertThat(index.search("whiteboard")).isEmpty();
+        assertThat(index.search("projection").keySet()).containsExactly(3L);
+        assertThat(index.search("main")).isEmpty();
+
+        // caught up to version 2: later searches do not sweep again
+        verify(resourceRepository, times(1)).findAllIds();
+    }
+
+    private static Resource resource(long id, String name, String description, String features) {
+        Resource r = new Resource();
+        r.setId(id);
+        r.setName(name);
+        r.setDescription(description);
+        r.setFeatures(features);
+        return r;
+    }
+}
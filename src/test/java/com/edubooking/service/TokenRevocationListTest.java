@@ -0,0 +1,146 @@
+package com.edubooking.service;
+
+import com.edubooking.config.JwtUtil;
+import com.edubooking.model.Role;
+import com.edubooking.model.User;
+import com.edubooking.repository.BookingRepository;
+import com.edubooking.repository.TokenRevocationRepository;
+import com.edubooking.repository.UserRepository;
+import com.edubooking.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenRevocationListTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+    private TokenRevocationList thisNode;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        thisNode = new TokenRevocationList(userRepository, tokenRevocationRepository, jwtUtil);
+        userService = new UserServiceImpl(userRepository, bookingRepository, thisNode,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        tokenRevocationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void deletedUsersTokenIsRejectedByAnotherNodeAfterRefresh() {
+        Long userId = register("gone@test.local").getId();
+        Date issuedAt = secondsAgo(2);
+
+        TokenRevocationList otherNode = new TokenRevocationList(userRepository, tokenRevocationRepository, jwtUtil);
+        otherNode.refresh();
+        assertThat(otherNode.isRevoked(userId, issuedAt)).isFalse();
+
+        userService.deleteUser(userId);
+        assertThat(userRepository.existsById(userId)).isFalse();
+        assertThat(thisNode.isRevoked(userId, issuedAt)).isTrue();
+
+        otherNode.refresh();
+        assertThat(otherNode.isRevoked(userId, issuedAt)).isTrue();
+        assertThat(otherNode.isRevoked(userId, new Date(System.currentTimeMillis() + 2000))).isFalse();
+    }
+
+    @Test
+    void roleChangeRevokesEarlierTokens() {
+        Long userId = register("promoted@test.local").getId();
+        Date issuedAt = secondsAgo(2);
+
+        userService.changeRole(userId, Role.ADMIN);
+
+        TokenRevocationList otherNode = new TokenRevocationList(userRepository, tokenRevocationRepository, jwtUtil);
+        otherNode.refresh();
+        assertThat(otherNode.isRevoked(userId, issuedAt)).isTrue();
+    }
+
+    @Test
+    void freshRegistrationsAreNotInTheRevocationSet() {
+        Long userId = register("new@test.local").getId();
+
+        thisNode.refresh();
+        assertThat(thisNode.isRevoked(userId, secondsAgo(2))).isFalse();
+        assertThat(thisNode.isRevoked(userId, null)).isFalse();
+    }
+
+    @Test
+    void rolledBackChangeDoesNotRevokeLocally() {
+        Long userId = register("kept@test.local").getId();
+        Date issuedAt = secondsAgo(2);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            thisNode.revoke(userId, "role changed to ADMIN");
+            tx.setRollbackOnly();
+        });
+
+        assertThat(thisNode.isRevoked(userId, issuedAt)).isFalse();
+        assertThat(tokenRevocationRepository.count()).isZero();
+    }
+
+    @Test
+    void revocationLandingDuringARefreshIsKept() {
+        TokenRevocationRepository revocations = mock(TokenRevocationRepository.class);
+        TokenRevocationList node = new TokenRevocationList(mock(UserRepository.class), revocations, jwtUtil);
+        Date issuedAt = secondsAgo(2);
+
+        // committed and applied after the refresh read the table, so the read did not see it
+        when(revocations.findRevokedSince(any())).thenAnswer(inv -> {
+            node.revoke(42L, "role changed to STUDENT");
+            return List.of();
+        });
+        node.refresh();
+        assertThat(node.isRevoked(42L, issuedAt)).isTrue();
+
+        // a later refresh started after it, and its read is what keeps it from here on
+        when(revocations.findRevokedSince(any())).thenReturn(List.of());
+        node.refresh();
+        assertThat(node.isRevoked(42L, issuedAt)).isFalse();
+    }
+
+    private User register(String email) {
+        User user = new User();
+        user.setName("Test");
+        user.setEmail(email);
+        user.setHashPassword("x");
+        user.setRole(Role.STUDENT);
+        return userRepository.save(user);
+    }
+
+    private static Date secondsAgo(long seconds) {
+        return new Date(System.currentTimeMillis() - seconds * 1000);
+    }
+}
@@ -0,0 +1,321 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.dto.BookingRequest;
+import com.edubooking.dto.BulkDecisionResponse;
+import com.edubooking.model.Booking;
+import com.edubooking.model.BookingStatus;
+import com.edubooking.model.Resource;
+import com.edubooking.model.ResourceStatus;
+import com.edubooking.model.ResourceType;
+import com.edubooking.model.Role;
+import com.edubooking.model.User;
+import com.edubooking.repository.BookingRepository;
+import com.edubooking.repository.ResourceRepository;
+import com.edubooking.repository.UserRepository;
+import com.edubooking.service.AvailabilityHub;
+import com.edubooking.service.BookingDurationLimit;
+import com.edubooking.service.BookingIntervalIndex;
+import com.edubooking.service.EmailOutboxService;
+import com.edubooking.service.ResourceLockManager;
+import com.edubooking.service.UtilisationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Hundreds of threads on two simulated nodes (separate lock managers and interval indexes,
+ * one shared database) create and approve overlapping bookings for the same resource. Only
+ * the row lock and the DB check inside it stand between them, so no two approved bookings
+ * may overlap.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingServiceConcurrencyTest {
+
+    private static final int SLOTS = 12;
+    private static final int REQUESTS_PER_SLOT = 40;
+    private static final int THREADS_PER_NODE = 200;
+    private static final int CREATORS = 20;
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 3, 8, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+    private Resource room;
+    private List<Long> requestIds;
+    private List<Long> creatorIds;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            User user = new User();
+            user.setName("student");
+            user.setEmail("student@test.local");
+            user.setHashPassword("x");
+            user.setRole(Role.STUDENT);
+            userRepository.save(user);
+
+            room = new Resource();
+            room.setName("Room");
+            room.setType(ResourceType.CLASSROOM);
+            room.setStatus(ResourceStatus.AVAILABLE);
+            resourceRepository.save(room);
+
+            // every slot gets several requests shifted by 15 minutes, all overlapping each other
+            List<Booking> requests = new ArrayList<>();
+            for (int slot = 0; slot < SLOTS; slot++) {
+                for (int i = 0; i < REQUESTS_PER_SLOT; i++) {
+                    LocalDateTime start = DAY.plusHours(2L * slot).plusMinutes(15L * (i % 4));
+                    Booking b = new Booking();
+                    b.setUser(user);
+                    b.setResource(room);
+                    b.setStartTime(start);
+                    b.setEndTime(start.plusHours(1));
+                    b.setStatus(BookingStatus.PENDING);
+                    b.setPurpose("stress");
+                    requests.add(b);
+                }
+            }
+            requestIds = new ArrayList<>(bookingRepository.saveAll(requests).stream().map(Booking::getId).toList());
+
+            // separate users, so the per-user overlap check does not stop creates before the resource check
+            List<User> creators = new ArrayList<>();
+            for (int i = 0; i < CREATORS; i++) {
+                User creator = new User();
+                creator.setName("creator " + i);
+                creator.setEmail("creator" + i + "@test.local");
+                creator.setHashPassword("x");
+                creator.setRole(Role.STUDENT);
+                creators.add(creator);
+            }
+            creatorIds = userRepository.saveAll(creators).stream().map(User::getId).toList();
+        });
+        Collections.shuffle(requestIds);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM resources");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void concurrentApprovalsOnTwoNodesNeverDoubleBook() throws Exception {
+        BookingServiceImpl nodeA = node();
+        BookingServiceImpl nodeB = node();
+
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2 * THREADS_PER_NODE);
+        for (int i = 0; i < requestIds.size(); i++) {
+            Long id = requestIds.get(i);
+            BookingServiceImpl node = i % 2 == 0 ? nodeA : nodeB;
+            pool.submit(() -> {
+                go.await();
+                try {
+                    node.approveBooking(id);
+                } catch (RuntimeException expected) {
+                    // slot taken, or already auto-rejected by a competing approval
+                }
+                return null;
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(120, TimeUnit.SECONDS)).isTrue();
+
+        List<Booking> approved = bookingRepository.findAll().stream()
+                .filter(b -> b.getStatus() == BookingStatus.APPROVED)
+                .sorted(Comparator.comparing(Booking::getStartTime))
+                .toList();
+
+        // all requests of a slot overlap each other, so exactly one per slot can win
+        assertThat(approved).hasSize(SLOTS);
+        assertNoApprovedOverlap();
+    }
+
+    @Test
+    void concurrentCreatesAndApprovalsOnTwoNodesNeverDoubleBook() throws Exception {
+        BookingServiceImpl nodeA = node();
+        BookingServiceImpl nodeB = node();
+
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2 * THREADS_PER_NODE);
+        for (int i = 0; i < requestIds.size(); i++) {
+            BookingServiceImpl node = (i / 2) % 2 == 0 ? nodeA : nodeB;
+
+            // half the threads approve seeded requests, the other half create a request and approve it
+            if (i % 2 == 0) {
+                Long id = requestIds.get(i);
+                pool.submit(() -> {
+                    go.await();
+                    try {
+                        node.approveBooking(id);
+                    } catch (RuntimeException expected) {
+                        // slot taken, or already auto-rejected
+                    }
+                    return null;
+                });
+            } else {
+                Long userId = creatorIds.get(i % CREATORS);
+                BookingRequest request = new BookingRequest();
+                request.setResourceId(room.getId());
+                // same slots as the seeded requests, and like them overlapping everything else in the slot
+                request.setStartTime(DAY.plusHours(2L * ((i / 2) % SLOTS)).plusMinutes(5L * ((i / 24) % 12)));
+                request.setEndTime(request.getStartTime().plusHours(1));
+                request.setPurpose("stress");
+                pool.submit(() -> {
+                    go.await();
+                    try {
+                        Booking created = node.createBooking(userId, request);
+                        (node == nodeA ? nodeB : nodeA).approveBooking(created.getId());
+                    } catch (RuntimeException expected) {
+                        // slot already approved when created or approved, or auto-rejected
+                    }
+                    return null;
+                });
+            }
+        }
+        go.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(120, TimeUnit.SECONDS)).isTrue();
+
+        // every slot had candidates, and at most one of each slot's overlapping bookings won
+        assertThat(bookingRepository.findAll().stream().filter(b -> b.getStatus() == BookingStatus.APPROVED))
+                .hasSize(SLOTS);
+        assertNoApprovedOverlap();
+    }
+
+    @Test
+    void bulkApproveReportsCandidatesThatLostAsAutoRejected() {
+        List<Long> firstSlot = bookingRepository.findAll().stream()
+                .filter(b -> b.getStartTime().isBefore(DAY.plusHours(2)))
+                .map(Booking::getId)
+                .sorted()
+                .toList();
+
+        BulkDecisionResponse response = node().approveBookings(firstSlot);
+
+        // first requested wins; the rest were rejected, not left alone
+        assertThat(response.getUpdated()).containsExactly(firstSlot.get(0));
+        assertThat(response.getSkipped()).isEmpty();
+        assertThat(response.getAutoRejected()).containsExactlyInAnyOrderElementsOf(firstSlot.subList(1, firstSlot.size()));
+        assertThat(bookingRepository.findAllById(response.getAutoRejected()))
+                .allMatch(b -> b.getStatus() == BookingStatus.REJECTED);
+    }
+
+    @Test
+    void racingCancelAndRejectOnTwoNodesRemoveTheMinutesOnce() throws Exception {
+        UtilisationService utilisation = mock(UtilisationService.class);
+        BookingServiceImpl nodeA = node(utilisation);
+        BookingServiceImpl nodeB = node(utilisation);
+
+        // one approved booking per slot
+        List<Long> approved = new ArrayList<>();
+        for (Long id : requestIds) {
+            try {
+                approved.add(nodeA.approveBooking(id).getId());
+            } catch (RuntimeException expected) {
+                // slot taken, or already auto-rejected
+            }
+        }
+        assertThat(approved).hasSize(SLOTS);
+
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2 * THREADS_PER_NODE);
+        for (Long id : approved) {
+            pool.submit(() -> {
+                go.await();
+                nodeA.cancelBooking(id, null, true);
+                return null;
+            });
+            pool.submit(() -> {
+                go.await();
+                nodeB.rejectBooking(id);
+                return null;
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        // whichever ran second saw the first one's status and left the rollup alone
+        verify(utilisation, times(SLOTS)).removeApproved(anyCollection());
+        assertThat(bookingRepository.findAllById(approved))
+                .allMatch(b -> b.getStatus() == BookingStatus.CANCELLED || b.getStatus() == BookingStatus.REJECTED);
+    }
+
+    private void assertNoApprovedOverlap() {
+        List<Booking> approved = bookingRepository.findAll().stream()
+                .filter(b -> b.getStatus() == BookingStatus.APPROVED)
+                .sorted(Comparator.comparing(Booking::getStartTime))
+                .toList();
+        for (int i = 1; i < approved.size(); i++) {
+            assertThat(approved.get(i).getStartTime())
+                    .as("approved bookings %d and %d overlap", approved.get(i - 1).getId(), approved.get(i).getId())
+                    .isAfterOrEqualTo(approved.get(i - 1).getEndTime());
+        }
+    }
+
+    // One "node": its own JVM locks and its own interval index over the shared database
+    private BookingServiceImpl node() {
+        return node(mock(UtilisationService.class));
+    }
+
+    private BookingServiceImpl node(UtilisationService utilisationService) {
+        AvailabilityHub hub = new AvailabilityHub(10, 16, 60_000, 25);
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, hub);
+        index.load();
+        return new BookingServiceImpl(
+                bookingRepository,
+                userRepository,
+                resourceRepository,
+                mock(EmailOutboxService.class),
+                index,
+                new ResourceLockManager(),
+                transactionTemplate,
+                utilisationService,
+                hub,
+                new BookingDurationLimit(bookingRepository, Duration.ofDays(31))
+        );
+    }
+}
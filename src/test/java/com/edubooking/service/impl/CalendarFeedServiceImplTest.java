@@ -0,0 +1,44 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.repository.BookingRepository;
+import com.edubooking.repository.projection.FeedVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class CalendarFeedServiceImplTest {
+
+    @Test
+    void refusesToStartWithoutAFeedSecret() {
+        assertThatThrownBy(() -> service(""))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("feed-secret");
+    }
+
+    @Test
+    void nodesSharingTheSecretAcceptEachOthersTokens() {
+        String token = service("shared").feedToken(42L);
+
+        assertThat(service("shared").isValidFeedToken(42L, token)).isTrue();
+        assertThat(service("shared").isValidFeedToken(43L, token)).isFalse();
+        assertThat(service("other").isValidFeedToken(42L, token)).isFalse();
+    }
+
+    @Test
+    void feedVersionMovesWithTheResourcesToo() {
+        LocalDateTime booked = LocalDateTime.of(2025, 3, 3, 8, 0);
+
+        assertThat(new FeedVersion(1L, booked, booked.minusDays(1)).latest()).isEqualTo(booked);
+        assertThat(new FeedVersion(1L, booked, booked.plusHours(1)).latest()).isEqualTo(booked.plusHours(1));
+        assertThat(new FeedVersion(0L, null, null).latest()).isNull();
+    }
+
+    private static CalendarFeedServiceImpl service(String secret) {
+        return new CalendarFeedServiceImpl(mock(BookingRepository.class), mock(PlatformTransactionManager.class), secret);
+    }
+}
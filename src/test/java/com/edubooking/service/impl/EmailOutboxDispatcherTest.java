@@ -0,0 +1,112 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.model.OutboxEmail;
+import com.edubooking.model.OutboxStatus;
+import com.edubooking.repository.OutboxEmailRepository;
+import com.edubooking.service.EmailService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxDispatcherTest {
+
+    private static final long LEASE_SECONDS = 120;
+    private static final int MAX_ATTEMPTS = 2;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private final EmailService emailService = mock(EmailService.class);
+    private EmailOutboxDispatcher dispatcher;
+    private Long emailId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        dispatcher = new EmailOutboxDispatcher(outboxEmailRepository, emailService, transactionTemplate,
+                20, MAX_ATTEMPTS, LEASE_SECONDS, 30, 3600);
+
+        emailId = transactionTemplate.execute(tx -> {
+            new EmailOutboxServiceImpl(outboxEmailRepository).enqueue("a@test.local", "Subject", "Body");
+            return outboxEmailRepository.findAll().get(0).getId();
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        outboxEmailRepository.deleteAll();
+    }
+
+    @Test
+    void claimedRowIsNotDueAgainBeforeTheLeaseExpires() {
+        List<OutboxEmail> dueWhileSending = new ArrayList<>();
+        List<LocalDateTime> nextAttemptWhileSending = new ArrayList<>();
+
+        doAnswer(inv -> {
+            // what another node's poll would see while this send is in flight
+            transactionTemplate.executeWithoutResult(tx -> dueWhileSending.addAll(
+                    outboxEmailRepository.findDueForUpdate(LocalDateTime.now(), PageRequest.of(0, 20))));
+            nextAttemptWhileSending.add(outboxEmailRepository.findById(emailId).orElseThrow().getNextAttemptAt());
+            return null;
+        }).when(emailService).sendEmail(anyString(), anyString(), anyString());
+
+        dispatcher.dispatch();
+
+        assertThat(dueWhileSending).isEmpty();
+        assertThat(nextAttemptWhileSending.get(0)).isAfter(LocalDateTime.now().plusSeconds(LEASE_SECONDS - 10));
+
+        OutboxEmail sent = outboxEmailRepository.findById(emailId).orElseThrow();
+        assertThat(sent.getStatus()).isEqualTo(OutboxStatus.SENT);
+        assertThat(sent.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void failedSendsBackOffThenGiveUp() {
+        doThrow(new RuntimeException("smtp down")).when(emailService).sendEmail(anyString(), anyString(), anyString());
+
+        dispatcher.dispatch();
+
+        OutboxEmail retried = outboxEmailRepository.findById(emailId).orElseThrow();
+        assertThat(retried.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(20));
+        assertThat(retried.getLastError()).isEqualTo("smtp down");
+
+        makeDue();
+        dispatcher.dispatch();
+
+        OutboxEmail failed = outboxEmailRepository.findById(emailId).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+    }
+
+    private void makeDue() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            OutboxEmail email = outboxEmailRepository.findById(emailId).orElseThrow();
+            email.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        });
+    }
+}
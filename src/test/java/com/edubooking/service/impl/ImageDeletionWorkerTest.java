@@ -0,0 +1,188 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.dto.resource.CreateResourceRequest;
+import com.edubooking.dto.resource.ResourceResponse;
+import com.edubooking.dto.resource.UpdateResourceRequest;
+import com.edubooking.model.ImageDeletion;
+import com.edubooking.model.OutboxStatus;
+import com.edubooking.model.ResourceStatus;
+import com.edubooking.model.ResourceType;
+import com.edubooking.repository.CatalogVersionRepository;
+import com.edubooking.repository.ImageDeletionRepository;
+import com.edubooking.repository.ResourceRepository;
+import com.edubooking.service.ImageUploadService;
+import com.edubooking.service.ResourceCatalogCache;
+import com.edubooking.service.ResourceSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImageDeletionWorkerTest {
+
+    private static final long LEASE_SECONDS = 120;
+    private static final int MAX_ATTEMPTS = 2;
+
+    @Autowired
+    private ImageDeletionRepository imageDeletionRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private CatalogVersionRepository catalogVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private final ImageUploadService imageUploadService = mock(ImageUploadService.class);
+    private ImageDeletionWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        worker = new ImageDeletionWorker(imageDeletionRepository, imageUploadService, transactionTemplate,
+                100, MAX_ATTEMPTS, LEASE_SECONDS, 60, 3600);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        imageDeletionRepository.deleteAll();
+        resourceRepository.deleteAll();
+        catalogVersionRepository.deleteAll();
+    }
+
+    @Test
+    void replacingOrDeletingAResourceQueuesItsOldImage() throws Exception {
+        when(imageUploadService.uploadImage(any(MultipartFile.class)))
+                .thenReturn(Map.of("url", "https://img/first", "publicId", "first"))
+                .thenReturn(Map.of("url", "https://img/second", "publicId", "second"));
+        ResourceServiceImpl resourceService = resourceService();
+
+        CreateResourceRequest create = new CreateResourceRequest();
+        create.setName("Lab");
+        create.setType(ResourceType.LAB);
+        create.setStatus(ResourceStatus.AVAILABLE);
+        ResourceResponse created = resourceService.createResource(create, image());
+        assertThat(queuedPublicIds()).isEmpty();
+
+        UpdateResourceRequest update = new UpdateResourceRequest();
+        update.setName("Lab 2");
+        resourceService.updateResource(created.getId(), update, null);
+        assertThat(queuedPublicIds()).isEmpty(); // no new image, nothing orphaned
+
+        resourceService.updateResource(created.getId(), update, image());
+        assertThat(queuedPublicIds()).containsExactly("first");
+
+        resourceService.deleteResource(created.getId());
+        assertThat(queuedPublicIds()).containsExactly("first", "second");
+    }
+
+    @Test
+    void deletedBatchIsMarkedSentAndNotDueDuringTheCall() throws Exception {
+        Long id = enqueue("img-1");
+        List<ImageDeletion> dueDuringCall = new ArrayList<>();
+
+        doAnswer(inv -> {
+            // what another node's poll would see while the delete call is in flight
+            transactionTemplate.executeWithoutResult(tx -> dueDuringCall.addAll(
+                    imageDeletionRepository.findDueForUpdate(LocalDateTime.now(), PageRequest.of(0, 100))));
+            return null;
+        }).when(imageUploadService).deleteImages(anyList());
+
+        worker.drain();
+
+        assertThat(dueDuringCall).isEmpty();
+        ImageDeletion done = imageDeletionRepository.findById(id).orElseThrow();
+        assertThat(done.getStatus()).isEqualTo(OutboxStatus.SENT);
+        assertThat(done.getAttempts()).isEqualTo(1);
+        assertThat(done.getDeletedAt()).isNotNull();
+    }
+
+    @Test
+    void failedCallRetriesWithBackoffThenGivesUp() throws Exception {
+        Long id = enqueue("img-1");
+        doThrow(new IOException("storage down")).when(imageUploadService).deleteImages(anyList());
+
+        worker.drain();
+
+        ImageDeletion retried = imageDeletionRepository.findById(id).orElseThrow();
+        assertThat(retried.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(50));
+        assertThat(retried.getLastError()).isEqualTo("storage down");
+
+        makeDue(id);
+        worker.drain();
+
+        ImageDeletion failed = imageDeletionRepository.findById(id).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(failed.getDeletedAt()).isNull();
+    }
+
+    private ResourceServiceImpl resourceService() {
+        ResourceCatalogCache catalogCache = new ResourceCatalogCache(
+                new ConcurrentMapCacheManager(ResourceCatalogCache.RESOURCES, ResourceCatalogCache.CATALOG,
+                        ResourceCatalogCache.COUNTS),
+                catalogVersionRepository,
+                0);
+        catalogCache.ensureVersionRow();
+        return new ResourceServiceImpl(resourceRepository, imageUploadService,
+                new ResourceSearchIndex(resourceRepository, catalogCache), catalogCache,
+                new ImageDeletionServiceImpl(imageDeletionRepository), transactionTemplate, DataSize.ofMegabytes(10));
+    }
+
+    private static MockMultipartFile image() {
+        return new MockMultipartFile("image", "a.png", "image/png", new byte[]{1, 2, 3});
+    }
+
+    private List<String> queuedPublicIds() {
+        return imageDeletionRepository.findAll().stream()
+                .sorted(Comparator.comparing(ImageDeletion::getId))
+                .map(ImageDeletion::getPublicId)
+                .toList();
+    }
+
+    private Long enqueue(String publicId) {
+        return transactionTemplate.execute(tx -> {
+            new ImageDeletionServiceImpl(imageDeletionRepository).enqueue(publicId);
+            return imageDeletionRepository.findAll().get(0).getId();
+        });
+    }
+
+    private void makeDue(Long id) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            ImageDeletion deletion = imageDeletionRepository.findById(id).orElseThrow();
+            deletion.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        });
+    }
+}
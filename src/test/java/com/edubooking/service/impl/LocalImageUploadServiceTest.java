@@ -0,0 +1,56 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.service.ImageUploadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The "test" profile selects the local provider; both upload service beans are
+ * offered and the provider property decides which one exists.
+ */
+@SpringBootTest(classes = {LocalImageUploadService.class, CloudinaryImageUploadService.class})
+@ActiveProfiles("test")
+class LocalImageUploadServiceTest {
+
+    @Autowired
+    private ImageUploadService imageUploadService;
+
+    @Test
+    void testProfileUsesTheLocalProvider() {
+        assertThat(imageUploadService).isInstanceOf(LocalImageUploadService.class);
+    }
+
+    @Test
+    void uploadsMultipartAndFileImagesAndDeletesThem() throws Exception {
+        Map<String, String> fromPart = imageUploadService.uploadImage(
+                new MockMultipartFile("image", "a.png", "image/png", "part".getBytes(StandardCharsets.UTF_8)));
+
+        Path source = Files.createTempFile("edubooking-test-", ".png");
+        Files.writeString(source, "file");
+        Map<String, String> fromFile = imageUploadService.uploadImage(source);
+
+        Path storedPart = Path.of(URI.create(fromPart.get("url")));
+        Path storedFile = Path.of(URI.create(fromFile.get("url")));
+        assertThat(storedPart).hasContent("part");
+        assertThat(storedFile).hasContent("file");
+        assertThat(source).exists(); // the caller's file is copied, not taken
+
+        imageUploadService.deleteImages(List.of(fromPart.get("publicId"), fromFile.get("publicId"), "missing"));
+        assertThat(storedPart).doesNotExist();
+        assertThat(storedFile).doesNotExist();
+
+        Files.deleteIfExists(source);
+    }
+}
@@ -0,0 +1,211 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.model.ImageDeletion;
+import com.edubooking.repository.CatalogVersionRepository;
+import com.edubooking.repository.ImageDeletionRepository;
+import com.edubooking.repository.ResourceRepository;
+import com.edubooking.service.ImageUploadService;
+import com.edubooking.service.ResourceCatalogCache;
+import com.edubooking.service.ResourceSearchIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ResourceImportServiceImplTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private ImageDeletionRepository imageDeletionRepository;
+
+    @Autowired
+    private CatalogVersionRepository catalogVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ImageUploadService imageUploadService = mock(ImageUploadService.class);
+    private final AtomicInteger uploads = new AtomicInteger();
+    private TransactionTemplate transactionTemplate;
+    private ResourceCatalogCache catalogCache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        catalogCache = new ResourceCatalogCache(
+                new ConcurrentMapCacheManager(ResourceCatalogCache.RESOURCES, ResourceCatalogCache.CATALOG,
+                        ResourceCatalogCache.COUNTS),
+                catalogVersionRepository,
+                0);
+        catalogCache.ensureVersionRow();
+
+        // an image whose content is "bad" fails to upload
+        when(imageUploadService.uploadImage(any(Path.class))).thenAnswer(inv -> {
+            if (Files.readString(inv.getArgument(0)).equals("bad")) throw new IOException("rejected by storage");
+            String publicId = "img-" + uploads.incrementAndGet();
+            return Map.of("url", "https://img/" + publicId, "publicId", publicId);
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        imageDeletionRepository.deleteAll();
+        resourceRepository.deleteAll();
+        catalogVersionRepository.deleteAll();
+    }
+
+    @Test
+    void importsInBatchesAndReportsEveryRow() throws IOException {
+        FlushCountingStream progress = new FlushCountingStream();
+
+        service(DataSize.ofMegabytes(1)).importResources(
+                rows(row("A", "a.png"), row("B", "b.png"), "{\"image\":\"c.png\"}", row("D", "d.png"), row("E", "a.png")),
+                zip(Map.of("a.png", "a", "b.png", "b", "c.png", "c", "d.png", "d")),
+                progress);
+
+        List<JsonNode> results = progress.lines();
+        assertThat(results).extracting(r -> r.get("line").asInt()).containsExactly(1, 2, 3, 4, 5);
+        assertThat(results).extracting(r -> r.get("status").asText())
+                .containsExactly("CREATED", "CREATED", "FAILED", "CREATED", "CREATED");
+        assertThat(results.get(2).get("error").asText()).isEqualTo("name is required");
+
+        assertThat(progress.flushes).isEqualTo(3); // 5 rows in batches of 2
+        assertThat(resourceRepository.count()).isEqualTo(4);
+        verify(imageUploadService, times(4)).uploadImage(any(Path.class));
+    }
+
+    @Test
+    void failedBatchQueuesItsUploadsForDeletionAndLaterBatchesStillRun() throws IOException {
+        FlushCountingStream progress = new FlushCountingStream();
+        String tooLong = "x".repeat(300); // past the name column, so the whole batch fails to store
+
+        service(DataSize.ofMegabytes(1)).importResources(
+                rows(row("A", "a.png"), row(tooLong, "b.png"), row("C", "bad.png"), row("D", "d.png")),
+                zip(Map.of("a.png", "a", "b.png", "b", "bad.png", "bad", "d.png", "d")),
+                progress);
+
+        List<JsonNode> results = progress.lines();
+        assertThat(results).extracting(r -> r.get("status").asText())
+                .containsExactly("FAILED", "FAILED", "FAILED", "CREATED");
+        assertThat(results.get(0).get("error").asText()).startsWith("Could not store row");
+        assertThat(results.get(1).get("error").asText()).startsWith("Could not store row");
+        assertThat(results.get(2).get("error").asText()).isEqualTo("Image upload failed: rejected by storage");
+
+        // both images of the failed batch were uploaded, so both are orphans now
+        assertThat(imageDeletionRepository.findAll()).extracting(ImageDeletion::getPublicId)
+                .containsExactlyInAnyOrder("img-1", "img-2");
+        assertThat(resourceRepository.findAll()).extracting(r -> r.getName()).containsExactly("D");
+    }
+
+    @Test
+    void onlyReferencedEntriesAreExtractedAndWithinTheBudget() throws IOException {
+        FlushCountingStream progress = new FlushCountingStream();
+
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("junk.bin", "0".repeat(100_000)); // not referenced: never touches the disk
+        entries.put("a.png", "aaaaaaaaaa");
+        entries.put("b.png", "bbbbbbbbbb");
+
+        service(DataSize.ofBytes(15)).importResources(
+                rows(row("A", "a.png"), row("B", "b.png")),
+                zip(entries),
+                progress);
+
+        List<JsonNode> results = progress.lines();
+        assertThat(results.get(0).get("status").asText()).isEqualTo("CREATED");
+        assertThat(results.get(1).get("status").asText()).isEqualTo("FAILED");
+        assertThat(results.get(1).get("error").asText()).contains("extraction limit");
+        verify(imageUploadService, times(1)).uploadImage(any(Path.class));
+    }
+
+    private ResourceImportServiceImpl service(DataSize maxExtractedSize) {
+        return new ResourceImportServiceImpl(
+                resourceRepository,
+                imageUploadService,
+                new ImageDeletionServiceImpl(imageDeletionRepository),
+                new ResourceSearchIndex(resourceRepository, catalogCache),
+                catalogCache,
+                transactionTemplate,
+                objectMapper,
+                BATCH_SIZE,
+                100,
+                2,
+                DataSize.ofMegabytes(10),
+                maxExtractedSize);
+    }
+
+    private String row(String name, String image) throws IOException {
+        return objectMapper.writeValueAsString(Map.of("name", name, "image", image));
+    }
+
+    private static MockMultipartFile rows(String... lines) {
+        return new MockMultipartFile("rows", "rows.ndjson", "application/x-ndjson",
+                String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockMultipartFile zip(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, String> e : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(e.getKey()));
+                zip.write(e.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("images", "images.zip", "application/zip", bytes.toByteArray());
+    }
+
+    private class FlushCountingStream extends ByteArrayOutputStream {
+        int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        List<JsonNode> lines() throws IOException {
+            List<JsonNode> lines = new ArrayList<>();
+            for (String line : toString(StandardCharsets.UTF_8).split("\n")) {
+                lines.add(objectMapper.readTree(line));
+            }
+            return lines;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.dto.common.PaginatedResponse;
+import com.edubooking.dto.resource.ResourceResponse;
+import com.edubooking.model.Resource;
+import com.edubooking.repository.ResourceRepository;
+import com.edubooking.service.ImageDeletionService;
+import com.edubooking.service.ImageUploadService;
+import com.edubooking.service.ResourceCatalogCache;
+import com.edubooking.service.ResourceSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResourceServiceImplTest {
+
+    private static final int RESOURCES = 30;
+
+    private final ResourceRepository resourceRepository = mock(ResourceRepository.class);
+    private final ResourceCatalogCache catalogCache = mock(ResourceCatalogCache.class);
+    private final Map<Long, Resource> rows = new HashMap<>();
+    private ResourceServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(catalogCache.getPage(any(), any()))
+                .thenAnswer(inv -> ((Supplier<PaginatedResponse<ResourceResponse>>) inv.getArgument(1)).get());
+        when(resourceRepository.findAllById(anyList())).thenAnswer(inv ->
+                ((Collection<Long>) inv.getArgument(0)).stream().map(rows::get).toList());
+
+        // every resource matches "projector" equally well, so the ranking is by id
+        ResourceSearchIndex index = new ResourceSearchIndex(resourceRepository, catalogCache);
+        for (long id = 1; id <= RESOURCES; id++) {
+            Resource r = new Resource();
+            r.setId(id);
+            r.setName("Room " + id);
+            r.setFeatures("projector");
+            rows.put(id, r);
+            index.put(r);
+        }
+
+        service = new ResourceServiceImpl(resourceRepository, mock(ImageUploadService.class), index, catalogCache,
+                mock(ImageDeletionService.class), mock(TransactionTemplate.class), DataSize.ofMegabytes(10));
+    }
+
+    @Test
+    void relevancePagesLoadOnlyThePageRows() {
+        PaginatedResponse<ResourceResponse> page = search(1, 10, null);
+
+        assertThat(ids(page)).containsExactlyElementsOf(LongStream.rangeClosed(11, 20).boxed().toList());
+        assertThat(page.getTotalElements()).isEqualTo(RESOURCES);
+        verify(resourceRepository).findAllById(LongStream.rangeClosed(11, 20).boxed().toList());
+        verify(resourceRepository, never()).findIds(any());
+        verify(resourceRepository, never()).findAll(any(Specification.class));
+    }
+
+    @Test
+    void otherFiltersRunAsAnIdOnlyQueryBeforePaging() {
+        when(resourceRepository.findIds(any()))
+                .thenReturn(LongStream.rangeClosed(1, RESOURCES).filter(id -> id % 2 == 0).boxed().toList());
+
+        PaginatedResponse<ResourceResponse> page = search(0, 5, "LAB");
+
+        assertThat(ids(page)).containsExactly(2L, 4L, 6L, 8L, 10L);
+        assertThat(page.getTotalElements()).isEqualTo(RESOURCES / 2);
+        verify(resourceRepository).findAllById(List.of(2L, 4L, 6L, 8L, 10L));
+        verify(resourceRepository, never()).findAll(any(Specification.class));
+    }
+
+    private PaginatedResponse<ResourceResponse> search(int page, int size, String type) {
+        return service.getResources(page, size, "projector", type, null, null, null, null, null, null);
+    }
+
+    private static List<Long> ids(PaginatedResponse<ResourceResponse> page) {
+        return page.getContent().stream().map(ResourceResponse::getId).toList();
+    }
+}
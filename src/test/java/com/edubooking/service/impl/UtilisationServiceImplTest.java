@@ -0,0 +1,104 @@
+package com.edubooking.service.impl;
+
+import com.edubooking.repository.BookingRepository;
+import com.edubooking.repository.UtilisationRollupRepository;
+import com.edubooking.repository.projection.BookingInterval;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class UtilisationServiceImplTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 3, 0, 0);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final UtilisationServiceImpl utilisationService = new UtilisationServiceImpl(
+            mock(UtilisationRollupRepository.class), mock(BookingRepository.class), jdbcTemplate,
+            mock(TransactionTemplate.class));
+
+    @Test
+    void splitsBookingsIntoClockHourBuckets() {
+        // 09:40-11:15: 20 + 60 + 15 minutes
+        utilisationService.addApproved(List.of(interval(1L, DAY.plusHours(9).plusMinutes(40), DAY.plusHours(11).plusMinutes(15))));
+
+        assertThat(upserted(1).get(0)).containsExactly(
+                row(1L, DAY.plusHours(9), 20),
+                row(1L, DAY.plusHours(10), 60),
+                row(1L, DAY.plusHours(11), 15));
+    }
+
+    @Test
+    void mergesDeltasOfOneCallPerResourceAndHour() {
+        utilisationService.addApproved(List.of(
+                interval(2L, DAY.plusHours(9), DAY.plusHours(9).plusMinutes(30)),
+                interval(1L, DAY.plusHours(9).plusMinutes(30), DAY.plusHours(10)),
+                interval(1L, DAY.plusHours(9), DAY.plusHours(9).plusMinutes(15))));
+
+        // one row per (resource, hour), in lock order
+        assertThat(upserted(1).get(0)).containsExactly(
+                row(1L, DAY.plusHours(9), 45),
+                row(2L, DAY.plusHours(9), 30));
+    }
+
+    @Test
+    void removeIsTheExactInverseOfAdd() {
+        List<BookingInterval> intervals = List.of(
+                interval(1L, DAY.plusHours(8).plusMinutes(50), DAY.plusHours(10).plusMinutes(5)),
+                interval(3L, DAY.plusHours(23).plusMinutes(30), DAY.plusDays(1).plusMinutes(45)));
+
+        utilisationService.addApproved(intervals);
+        utilisationService.removeApproved(intervals);
+
+        List<List<Object[]>> batches = upserted(2);
+        List<Object[]> added = batches.get(0);
+        List<Object[]> removed = batches.get(1);
+
+        assertThat(removed).hasSameSizeAs(added);
+        Map<String, Integer> net = new HashMap<>();
+        for (List<Object[]> batch : batches) {
+            for (Object[] r : batch) {
+                net.merge(r[0] + "@" + r[1], (Integer) r[2], Integer::sum);
+            }
+        }
+        assertThat(net.values()).containsOnly(0);
+        assertThat(added).extracting(r -> (Integer) r[2]).allMatch(m -> m > 0);
+    }
+
+    @Test
+    void zeroLengthOrCancellingDeltasWriteNothing() {
+        utilisationService.addApproved(List.of(interval(1L, DAY.plusHours(9), DAY.plusHours(9))));
+        utilisationService.removeApproved(List.of());
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object[]>> upserted(int calls) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(calls)).batchUpdate(anyString(), rows.capture());
+        return rows.getAllValues();
+    }
+
+    private static BookingInterval interval(Long resourceId, LocalDateTime start, LocalDateTime end) {
+        return new BookingInterval(null, resourceId, start, end);
+    }
+
+    private static Object[] row(Long resourceId, LocalDateTime bucket, int minutes) {
+        return new Object[]{resourceId, Timestamp.valueOf(bucket), minutes};
+    }
+}